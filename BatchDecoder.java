@@ -0,0 +1,72 @@
+public class BatchDecoder {
+    // Number of codewords whose status fits one long.
+    public static final int LANES = 64;
+
+    // Decoder of words that are not codewords.
+    private final GolayEncoder fallback;
+
+    // Bits compared when screening, including parity bit of 24 bit codewords.
+    private final int mask;
+
+    /**
+     * Creates batch decoder. Decoder keeps no state between calls, so it can be shared between threads.
+     * @param fallback decoder of damaged words, SYNDROME_TABLE or DIRECT_TABLE mode being fastest.
+     */
+    public BatchDecoder(GolayEncoder fallback) {
+        this.fallback = fallback;
+        this.mask = (1 << fallback.getCodewordBits()) - 1;
+    }
+
+    /**
+     * Decodes consecutive codewords 64 at a time. A whole batch is first screened for damaged words,
+     * then undamaged words are taken as they are and only damaged ones are passed to the fallback decoder.
+     * @param codewords array of codewords of fallback codeword length.
+     * @param offset index of first codeword.
+     * @param count number of codewords.
+     * @param messages array receiving decoded 12 bit messages.
+     * @param messagesOffset index of first message.
+     */
+    public void decode(int[] codewords, int offset, int count, int[] messages, int messagesOffset) {
+        for (int start = 0; start < count; start += LANES) {
+            int lanes = Math.min(LANES, count - start);
+            int first = offset + start;
+            int firstMessage = messagesOffset + start;
+
+            long damaged = findDamaged(codewords, first, lanes);
+
+            // a codeword's message is its first 12 bits.
+            for (int k = 0; k < lanes; k++) {
+                messages[firstMessage + k] = (codewords[first + k] & 0x7FFFFF) >>> 11;
+            }
+
+            // damaged words are counted by the fallback decoder, so only undamaged ones are counted here.
+            DecoderMetrics metrics = fallback.getMetrics();
+            if (metrics != null && fallback.isFixErrors()) {
+                metrics.recordClean(lanes - Long.bitCount(damaged));
+            }
+
+            for (long bits = damaged; bits != 0; bits &= bits - 1) {
+                int k = Long.numberOfTrailingZeros(bits);
+                messages[firstMessage + k] = fallback.decodeWord(codewords[first + k]);
+            }
+        }
+    }
+
+    /**
+     * Finds words of a batch that are not codewords, by re-encoding their first 12 bits.
+     * @param codewords array of codewords of fallback codeword length.
+     * @param offset index of first codeword.
+     * @param lanes number of codewords, at most 64.
+     * @return mask with bit k set when codeword k is damaged.
+     */
+    public long findDamaged(int[] codewords, int offset, int lanes) {
+        long damaged = 0;
+        for (int k = 0; k < lanes; k++) {
+            int codeword = codewords[offset + k] & mask;
+            // branch free, so the loop does not stall on randomly placed errors.
+            long differs = fallback.encode12(codeword >>> 11) ^ codeword;
+            damaged |= ((differs | -differs) >>> 63) << k;
+        }
+        return damaged;
+    }
+}
@@ -0,0 +1,223 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class Benchmark {
+    // Iterations run before measuring, letting JIT compile the measured code.
+    private static final int WARMUP_ITERATIONS = 5;
+
+    // Iterations whose results are measured.
+    private static final int MEASURE_ITERATIONS = 10;
+
+    // Minimal time of one iteration in nanoseconds.
+    private static final long ITERATION_TIME = 200_000_000L;
+
+    // Payload sizes in bytes of bulk and file benchmarks.
+    private static final int[] PAYLOAD_SIZES = {1 << 10, 1 << 16, 1 << 20};
+
+    // Probabilities of bit flip in received codewords.
+    private static final double[] ERROR_RATES = {0, 0.01, 0.05};
+
+    // Number of codewords in single word benchmarks.
+    private static final int WORD_COUNT = 1 << 16;
+
+    // Results are written here so JIT cannot remove measured calls.
+    private static volatile int sink;
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(1);
+
+        System.out.printf("%-16s %-52s %16s %14s %10s%n", "benchmark", "parameters", "ops/s", "error (95%)", "MB/s");
+
+        GolayEncoder encoder = new GolayEncoder();
+
+        int[] messages = new int[WORD_COUNT];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = random.nextInt(1 << 12);
+        }
+        measure("encode12", "", 0, messages.length, () -> {
+            int result = 0;
+            for (int message : messages) {
+                result ^= encoder.encode12(message);
+            }
+            sink = result;
+        });
+
+        int[] encodedWords = new int[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            encodedWords[i] = encoder.encode12(messages[i]);
+        }
+
+        for (GolayEncoder.DecodeMode mode : GolayEncoder.DecodeMode.values()) {
+            GolayEncoder decoder = new GolayEncoder(mode);
+            for (double errorRate : ERROR_RATES) {
+                int[] codewords = noisyCodewords(encodedWords, 23, errorRate, random);
+                measure("decode23", "mode=" + mode + " errorRate=" + errorRate, 0, codewords.length, () -> {
+                    int result = 0;
+                    for (int codeword : codewords) {
+                        result ^= decoder.decode23(codeword);
+                    }
+                    sink = result;
+                });
+            }
+        }
+
+        GolayEncoder extended = encoder.withCodewordBits(24);
+        int[] extendedWords = new int[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            extendedWords[i] = extended.encode12(messages[i]);
+        }
+        for (double errorRate : ERROR_RATES) {
+            int[] codewords = noisyCodewords(extendedWords, 24, errorRate, random);
+            measure("decode24", "errorRate=" + errorRate, 0, codewords.length, () -> {
+                int result = 0;
+                for (int codeword : codewords) {
+                    result ^= extended.decode24(codeword);
+                }
+                sink = result;
+            });
+        }
+
+        for (int size : PAYLOAD_SIZES) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            String params = "size=" + size;
+
+            measure("encodeWords", params, size, 1, () -> sink = encoder.encodeWords(bytes).size());
+            measure("encodeParallel", params, size, 1, () -> sink = encoder.encodeParallel(bytes).size());
+
+            EncodedData encoded = encoder.encodeWords(bytes);
+
+            DenseBitstream bitstream = new DenseBitstream(23);
+            byte[] dense = new byte[bitstream.getByteCount(encoded.size())];
+            int[] denseWords = new int[encoded.size()];
+            measure("denseWrite", params, size, 1, () -> sink = bitstream.write(encoded.getCodewords(), 0, encoded.size(), dense, 0));
+            measure("denseRead", params, size, 1, () -> {
+                bitstream.read(dense, 0, dense.length, 0, denseWords, 0, denseWords.length);
+                sink = denseWords[denseWords.length - 1];
+            });
+            for (GolayEncoder.DecodeMode mode : GolayEncoder.DecodeMode.values()) {
+                GolayEncoder decoder = new GolayEncoder(mode);
+                for (double errorRate : ERROR_RATES) {
+                    int[] codewords = noisyCodewords(encoded.getCodewords(), encoded.getCodewordBits(), errorRate, random);
+                    String decodeParams = params + " mode=" + mode + " errorRate=" + errorRate;
+
+                    measure("decodeWords", decodeParams, size, 1, () -> sink = decoder.decodeWords(codewords, encoded.getOverflow()).length);
+                    measure("decodeParallel", decodeParams, size, 1, () -> sink = decoder.decodeParallel(codewords, encoded.getOverflow()).length);
+                }
+            }
+
+            Path input = Files.createTempFile("golay-benchmark", ".bin");
+            Path output = Files.createTempFile("golay-benchmark", ".out");
+            try {
+                Files.write(input, bytes);
+                int[][] vectors = encoded.getVectors();
+
+                measure("encodeFile", params, size, 1, () -> {
+                    try {
+                        sink = encoder.encodeFile(input.toString()).size();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                measure("decodeFile", params, size, 1, () -> {
+                    try {
+                        encoder.decodeFile(vectors, output.toString(), encoded.getOverflow());
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+                for (double errorRate : ERROR_RATES) {
+                    Channel channel = new Channel(errorRate);
+                    // flips are applied to the same vectors every call, which does not change the work done.
+                    measure("Channel.send", params + " errorRate=" + errorRate, size, 1, () -> {
+                        channel.send(vectors, encoded.getOverflow());
+                        sink = channel.receive().length;
+                    });
+                }
+            } finally {
+                Files.deleteIfExists(input);
+                Files.deleteIfExists(output);
+            }
+        }
+    }
+
+    /**
+     * Runs warm-up and measured iterations of an operation and prints its throughput.
+     * @param name name of benchmark.
+     * @param params description of benchmark parameters.
+     * @param bytesPerCall payload bytes processed by one call, 0 when throughput in bytes is not relevant.
+     * @param operationsPerCall operations done by one call.
+     * @param call measured call.
+     */
+    private static void measure(String name, String params, long bytesPerCall, long operationsPerCall, Runnable call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(call);
+        }
+
+        // calls per second of every measured iteration.
+        double[] results = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            results[i] = runIteration(call);
+        }
+
+        double mean = 0;
+        for (double result : results) {
+            mean += result;
+        }
+        mean /= results.length;
+
+        double variance = 0;
+        for (double result : results) {
+            variance += (result - mean) * (result - mean);
+        }
+        variance /= results.length - 1;
+
+        // half width of 95% confidence interval of mean.
+        double error = 1.96 * Math.sqrt(variance / results.length);
+
+        String megabytes = bytesPerCall > 0 ? String.format("%10.1f", mean * bytesPerCall / 1e6) : String.format("%10s", "-");
+        System.out.printf("%-16s %-52s %16.1f %14.1f %s%n", name, params, mean * operationsPerCall, error * operationsPerCall, megabytes);
+    }
+
+    /**
+     * Repeats call until iteration time has passed.
+     * @param call measured call.
+     * @return calls per second.
+     */
+    private static double runIteration(Runnable call) {
+        long calls = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            call.run();
+            calls++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_TIME);
+        return calls * 1e9 / elapsed;
+    }
+
+    /**
+     * Flips bits of codewords with given probability.
+     * @param codewords array of codewords.
+     * @param codewordBits number of bits per codeword, parity bit of 24 bit codewords being flipped too.
+     * @param errorRate probability of bit flip.
+     * @param random source of noise.
+     * @return new array of noisy codewords.
+     */
+    private static int[] noisyCodewords(int[] codewords, int codewordBits, double errorRate, Random random) {
+        int[] noisy = new int[codewords.length];
+        for (int i = 0; i < noisy.length; i++) {
+            int codeword = codewords[i];
+            for (int bit = 0; bit < codewordBits; bit++) {
+                if (random.nextDouble() < errorRate) {
+                    codeword ^= 1 << bit;
+                }
+            }
+            noisy[i] = codeword;
+        }
+        return noisy;
+    }
+}
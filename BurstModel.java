@@ -0,0 +1,70 @@
+import java.util.SplittableRandom;
+
+public class BurstModel implements ChannelModel {
+    // Probability of a burst starting at a bit.
+    private final double burstRate;
+
+    // Number of consecutive bits flipped by a burst.
+    private final int burstLength;
+
+    private final SplittableRandom random;
+
+    // Bits left before next burst starts.
+    private long untilBurst;
+
+    // Bits left to flip in current burst.
+    private int burstLeft;
+
+    public BurstModel(double burstRate, int burstLength) {
+        this(burstRate, burstLength, new SplittableRandom());
+    }
+
+    public BurstModel(double burstRate, int burstLength, long seed) {
+        this(burstRate, burstLength, new SplittableRandom(seed));
+    }
+
+    private BurstModel(double burstRate, int burstLength, SplittableRandom random) {
+        if (burstRate < 0 || burstRate > 1) {
+            throw new IllegalArgumentException("Burst rate must be between 0 and 1");
+        }
+        if (burstLength <= 0) {
+            throw new IllegalArgumentException("Burst length must be positive");
+        }
+        this.burstRate = burstRate;
+        this.burstLength = burstLength;
+        this.random = random;
+        this.untilBurst = nextGap();
+    }
+
+    @Override
+    public int nextMask(int bits) {
+        int mask = 0;
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            if (burstLeft == 0) {
+                if (untilBurst > 0) {
+                    // jump over bits before next burst within this word.
+                    long jump = Math.min(untilBurst, bit + 1);
+                    untilBurst -= jump;
+                    bit -= (int) jump - 1;
+                    continue;
+                }
+                burstLeft = burstLength;
+                untilBurst = nextGap();
+            }
+            mask |= 1 << bit;
+            burstLeft--;
+        }
+        return mask;
+    }
+
+    // number of bits before next burst, geometrically distributed.
+    private long nextGap() {
+        if (burstRate <= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (burstRate >= 1) {
+            return 0;
+        }
+        return (long) (Math.log(1 - random.nextDouble()) / Math.log1p(-burstRate));
+    }
+}
@@ -1,32 +1,251 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.SplittableRandom;
+
 public class Channel {
     private int[][] data;
     private double channelNoise;
     private int safeData;
 
+    // Source of noise, seeded to replay a transmission exactly.
+    private final SplittableRandom random;
+
+    // Flag indicating if flipped bits are picked by skipping geometric gaps instead of testing every bit.
+    private boolean skipSampling;
+
+    // Flag indicating if packed buffers are copied before flipping instead of being changed in place.
+    private boolean copyOnSend;
+
+    // Number of bits in a packed codeword.
+    private int codewordBits = 23;
+
+    private IntBuffer codewords;
+    private ByteBuffer codewordBytes;
+
+    // Bits left before next flip when skip sampling packed codewords.
+    private long skip;
+
+    // Error model of packed sends, null for independent flips at channel noise.
+    private ChannelModel model;
+
     public Channel() {
         channelNoise = 0;
+        random = new SplittableRandom();
     }
 
     public Channel(double channelNoise) {
         this.channelNoise = channelNoise;
+        this.random = new SplittableRandom();
+    }
+
+    public Channel(double channelNoise, long seed) {
+        this.channelNoise = channelNoise;
+        this.random = new SplittableRandom(seed);
     }
 
     public void setChannelNoise(int channelNoise) {
         this.channelNoise = channelNoise;
     }
 
+    public void setSkipSampling(boolean skipSampling) {
+        this.skipSampling = skipSampling;
+    }
+
+    public void setCopyOnSend(boolean copyOnSend) {
+        this.copyOnSend = copyOnSend;
+    }
+
+    public void setCodewordBits(int codewordBits) {
+        this.codewordBits = codewordBits;
+    }
+
+    public void setModel(ChannelModel model) {
+        this.model = model;
+    }
+
     public void send(int[][] data, int overflow) {
         this.safeData = overflow;
-        randomFlip(data, 0, this.channelNoise);
+        flip(data, 0, this.channelNoise);
         this.data = data.clone();
     }
 
     public void send(int[][] data, int overflow, int headerSize) {
         this.safeData = overflow;
-        randomFlip(data, headerSize, this.channelNoise);
+        flip(data, headerSize, this.channelNoise);
         this.data = data.clone();
     }
 
+    /**
+     * Sends packed codewords between buffer position and limit, flipping bits with XOR masks.
+     * Direct buffers stay direct, and with copy on send turned off no codewords are copied.
+     */
+    public void send(IntBuffer codewords, int overflow, int headerSize) {
+        this.safeData = overflow;
+        if (copyOnSend) {
+            IntBuffer copy = codewords.isDirect()
+                    ? ByteBuffer.allocateDirect(codewords.remaining() * Integer.BYTES).order(codewords.order()).asIntBuffer()
+                    : IntBuffer.allocate(codewords.remaining());
+            copy.put(codewords.duplicate()).flip();
+            codewords = copy;
+        }
+
+        startSkip(this.channelNoise);
+        int first = codewords.position() + headerSize * 3 / 2;
+        for (int i = first; i < codewords.limit(); i++) {
+            int mask = nextMask(this.channelNoise);
+            if (mask != 0) {
+                codewords.put(i, codewords.get(i) ^ mask);
+            }
+        }
+        this.codewords = codewords;
+    }
+
+    /**
+     * Sends packed codewords written as 3 big-endian bytes each, like encoded streams, between buffer position and limit.
+     */
+    public void send(ByteBuffer codewordBytes, int overflow, int headerSize) {
+        this.safeData = overflow;
+        if (copyOnSend) {
+            ByteBuffer copy = codewordBytes.isDirect()
+                    ? ByteBuffer.allocateDirect(codewordBytes.remaining())
+                    : ByteBuffer.allocate(codewordBytes.remaining());
+            copy.put(codewordBytes.duplicate()).flip();
+            codewordBytes = copy;
+        }
+
+        startSkip(this.channelNoise);
+        int first = codewordBytes.position() + headerSize * 3 / 2 * GolayEncoder.CODEWORD_BYTES;
+        for (int i = first; i + GolayEncoder.CODEWORD_BYTES <= codewordBytes.limit(); i += GolayEncoder.CODEWORD_BYTES) {
+            int mask = nextMask(this.channelNoise);
+            if (mask != 0) {
+                codewordBytes.put(i, (byte) (codewordBytes.get(i) ^ (mask >>> 16)));
+                codewordBytes.put(i + 1, (byte) (codewordBytes.get(i + 1) ^ (mask >>> 8)));
+                codewordBytes.put(i + 2, (byte) (codewordBytes.get(i + 2) ^ mask));
+            }
+        }
+        this.codewordBytes = codewordBytes;
+    }
+
+    /**
+     * Sends codewords of encoded data, flipping bits of its codeword length whatever length the channel is set to.
+     */
+    public void send(EncodedData data, int headerSize) {
+        int channelBits = this.codewordBits;
+        this.codewordBits = data.getCodewordBits();
+        try {
+            send(IntBuffer.wrap(data.getCodewords()), data.getOverflow(), headerSize);
+        } finally {
+            this.codewordBits = channelBits;
+        }
+    }
+
+    /**
+     * Sends stream of codewords written as 3 big-endian bytes each, one interleaver block at a time.
+     * Every block is interleaved, sent through the channel and deinterleaved, so memory use is bounded by the block.
+     * @param in stream of encoded codewords, read until its end.
+     * @param out stream receiving codewords as they arrive after deinterleaving.
+     * @param interleaver block interleaver, null to send codewords in order.
+     * @throws IOException when failed to read or write stream.
+     */
+    public void send(InputStream in, OutputStream out, Interleaver interleaver) throws IOException {
+        int depth = interleaver != null ? interleaver.getDepth() : 4096;
+        byte[] bytes = new byte[depth * GolayEncoder.CODEWORD_BYTES];
+        int[] block = new int[depth];
+        int[] sent = new int[depth];
+
+        startSkip(this.channelNoise);
+        int read;
+        while ((read = in.readNBytes(bytes, 0, bytes.length)) > 0) {
+            int count = read / GolayEncoder.CODEWORD_BYTES;
+            for (int i = 0; i < count; i++) {
+                int p = i * GolayEncoder.CODEWORD_BYTES;
+                block[i] = ((bytes[p] & 0xFF) << 16) | ((bytes[p + 1] & 0xFF) << 8) | (bytes[p + 2] & 0xFF);
+            }
+
+            if (interleaver != null) {
+                interleaver.interleave(block, count, sent);
+            } else {
+                System.arraycopy(block, 0, sent, 0, count);
+            }
+
+            for (int i = 0; i < count; i++) {
+                sent[i] ^= nextMask(this.channelNoise);
+            }
+
+            if (interleaver != null) {
+                interleaver.deinterleave(sent, count, block);
+            } else {
+                System.arraycopy(sent, 0, block, 0, count);
+            }
+
+            for (int i = 0; i < count; i++) {
+                int p = i * GolayEncoder.CODEWORD_BYTES;
+                bytes[p] = (byte) (block[i] >>> 16);
+                bytes[p + 1] = (byte) (block[i] >>> 8);
+                bytes[p + 2] = (byte) block[i];
+            }
+            out.write(bytes, 0, read);
+        }
+        out.flush();
+    }
+
+    /**
+     * Sends codewords over additive white Gaussian noise channel with BPSK modulation, bit "0" sent as +1 and "1" as -1.
+     * @param codewords array of packed codewords.
+     * @param ebN0Db energy per information bit to noise density ratio in decibels.
+     * @return log-likelihood ratios of received bits, codewordBits per codeword, positive values meaning bit "0".
+     */
+    public float[] sendAwgn(int[] codewords, double ebN0Db) {
+        float[] llrs = new float[codewords.length * codewordBits];
+        sendAwgn(codewords, 0, codewords.length, ebN0Db, llrs, 0);
+        return llrs;
+    }
+
+    /**
+     * Sends codewords over additive white Gaussian noise channel, writing ratios into a given array.
+     * @param codewords array of packed codewords.
+     * @param offset index of first codeword.
+     * @param count number of codewords.
+     * @param ebN0Db energy per information bit to noise density ratio in decibels.
+     * @param llrs array receiving codewordBits ratios per codeword.
+     * @param llrsOffset index of first ratio.
+     */
+    public void sendAwgn(int[] codewords, int offset, int count, double ebN0Db, float[] llrs, int llrsOffset) {
+        sendAwgn(codewords, offset, count, this.codewordBits, ebN0Db, llrs, llrsOffset);
+    }
+
+    /**
+     * Sends codewords of encoded data over additive white Gaussian noise channel, using codeword length of the data.
+     * @param data encoded data.
+     * @param ebN0Db energy per information bit to noise density ratio in decibels.
+     * @return log-likelihood ratios of received bits, codeword length of the data per codeword.
+     */
+    public float[] sendAwgn(EncodedData data, double ebN0Db) {
+        int[] codewords = data.getCodewords();
+        float[] llrs = new float[codewords.length * data.getCodewordBits()];
+        sendAwgn(codewords, 0, codewords.length, data.getCodewordBits(), ebN0Db, llrs, 0);
+        return llrs;
+    }
+
+    private void sendAwgn(int[] codewords, int offset, int count, int codewordBits, double ebN0Db, float[] llrs, int llrsOffset) {
+        // noise variance of a code with rate 12 / codewordBits.
+        double rate = 12.0 / codewordBits;
+        double variance = 1 / (2 * rate * Math.pow(10, ebN0Db / 10));
+        double sigma = Math.sqrt(variance);
+
+        int l = llrsOffset;
+        for (int i = offset; i < offset + count; i++) {
+            for (int bit = codewordBits - 1; bit >= 0; bit--) {
+                double symbol = ((codewords[i] >>> bit) & 1) == 0 ? 1 : -1;
+                double received = symbol + sigma * random.nextGaussian();
+                llrs[l++] = (float) (2 * received / variance);
+            }
+        }
+    }
+
     public int[][] receive() {
         return this.data;
     }
@@ -35,18 +254,104 @@ public class Channel {
         return this.data[0];
     }
 
+    public IntBuffer receiveCodewords() {
+        return this.codewords;
+    }
+
+    public ByteBuffer receiveCodewordBytes() {
+        return this.codewordBytes;
+    }
+
     public int receiveSafeData() {
         return this.safeData;
     }
 
+    private void flip(int[][] data, int headerSize, double probability) {
+        if (skipSampling) {
+            skipFlip(data, headerSize, probability);
+        } else {
+            randomFlip(data, headerSize, probability);
+        }
+    }
+
     private void randomFlip(int[][] data, int headerSize, double probability) {
         int firstIdx = headerSize * 3 / 2;
         for (int i = firstIdx; i < data.length; i++) {
             for (int j = 0; j < data[i].length; j++) {
-                if (Math.random() < probability) {
+                if (random.nextDouble() < probability) {
                     data[i][j] ^= 1;
                 }
             }
         }
     }
+
+    /**
+     * Flips bits with the same distribution as randomFlip, but jumps straight to the next flipped bit.
+     * Gaps between flips follow a geometric distribution, so only about probability * bits random values are drawn.
+     */
+    private void skipFlip(int[][] data, int headerSize, double probability) {
+        if (probability <= 0) {
+            return;
+        }
+        if (probability >= 1) {
+            randomFlip(data, headerSize, probability);
+            return;
+        }
+
+        int i = headerSize * 3 / 2;
+        long j = -1;
+        while (i < data.length) {
+            j += 1 + nextGap(probability);
+            while (i < data.length && j >= data[i].length) {
+                j -= data[i].length;
+                i++;
+            }
+            if (i < data.length) {
+                data[i][(int) j] ^= 1;
+            }
+        }
+    }
+
+    private void startSkip(double probability) {
+        if (skipSampling && probability > 0 && probability < 1) {
+            skip = nextGap(probability);
+        }
+    }
+
+    /**
+     * Creates XOR mask of bits to flip in one packed codeword.
+     */
+    private int nextMask(double probability) {
+        if (model != null) {
+            return model.nextMask(codewordBits);
+        }
+        if (probability <= 0) {
+            return 0;
+        }
+        if (probability >= 1) {
+            return (1 << codewordBits) - 1;
+        }
+
+        int mask = 0;
+        if (skipSampling) {
+            while (skip < codewordBits) {
+                mask |= 1 << skip;
+                skip += 1 + nextGap(probability);
+            }
+            skip -= codewordBits;
+            return mask;
+        }
+
+        for (int bit = 0; bit < codewordBits; bit++) {
+            if (random.nextDouble() < probability) {
+                mask |= 1 << bit;
+            }
+        }
+        return mask;
+    }
+
+    // number of unflipped bits before next flip, geometrically distributed.
+    private long nextGap(double probability) {
+        return (long) (Math.log(1 - random.nextDouble()) / Math.log1p(-probability));
+    }
 }
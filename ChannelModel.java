@@ -0,0 +1,8 @@
+public interface ChannelModel {
+    /**
+     * Draws errors of the next transmitted bits, continuing the model's state from previous calls.
+     * @param bits number of transmitted bits, at most 32.
+     * @return XOR mask with values "1" at bits to flip, first transmitted bit being the highest.
+     */
+    int nextMask(int bits);
+}
@@ -0,0 +1,51 @@
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Pipeline stage passing every received fragment through an incremental codec and publishing its output.
+ */
+public class CodecProcessor extends SubmissionPublisher<ByteBuffer> implements Flow.Processor<ByteBuffer, ByteBuffer> {
+    private final IncrementalCodec codec;
+    private Flow.Subscription subscription;
+
+    public CodecProcessor(IncrementalCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        try {
+            publish(codec.update(item));
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            closeExceptionally(e);
+            return;
+        }
+        // next fragment is requested only after output is accepted, so slow subscribers hold back the source.
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        publish(codec.finish());
+        close();
+    }
+
+    private void publish(ByteBuffer output) {
+        if (output.hasRemaining()) {
+            submit(output);
+        }
+    }
+}
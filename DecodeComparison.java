@@ -0,0 +1,75 @@
+import java.util.BitSet;
+
+public class DecodeComparison {
+    private final byte[] fixedBytes;
+    private final byte[] rawBytes;
+
+    // Number of codewords per compared block.
+    private final int blockWords;
+
+    // Message bits changed by correction in every block.
+    private final int[] correctedBits;
+
+    /**
+     * Creates empty comparison filled by GolayEncoder.compareWords.
+     * @param byteCount number of decoded bytes.
+     * @param wordCount number of received codewords.
+     * @param blockWords number of codewords per block, an even number so blocks hold whole groups.
+     */
+    public DecodeComparison(int byteCount, int wordCount, int blockWords) {
+        if (blockWords <= 0 || blockWords % 2 != 0) {
+            throw new IllegalArgumentException("Block must hold a positive even number of codewords");
+        }
+        this.fixedBytes = new byte[byteCount];
+        this.rawBytes = new byte[byteCount];
+        this.blockWords = blockWords;
+        this.correctedBits = new int[(wordCount + blockWords - 1) / blockWords];
+    }
+
+    void addCorrectedBits(int word, int bits) {
+        correctedBits[word / blockWords] += bits;
+    }
+
+    // arrays are not copied, so decoded bytes can be written out without another allocation.
+    public byte[] getFixedBytes() {
+        return fixedBytes;
+    }
+
+    public byte[] getRawBytes() {
+        return rawBytes;
+    }
+
+    public int getBlockWords() {
+        return blockWords;
+    }
+
+    public int getBlockCount() {
+        return correctedBits.length;
+    }
+
+    public int getCorrectedBits(int block) {
+        return correctedBits[block];
+    }
+
+    public long getTotalCorrectedBits() {
+        long total = 0;
+        for (int bits : correctedBits) {
+            total += bits;
+        }
+        return total;
+    }
+
+    /**
+     * Finds blocks whose corrected and not corrected output differ.
+     * @return bitmap with a bit set at index of every differing block.
+     */
+    public BitSet getDifferingBlocks() {
+        BitSet blocks = new BitSet(correctedBits.length);
+        for (int i = 0; i < correctedBits.length; i++) {
+            if (correctedBits[i] != 0) {
+                blocks.set(i);
+            }
+        }
+        return blocks;
+    }
+}
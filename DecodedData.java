@@ -0,0 +1,78 @@
+import java.util.BitSet;
+
+public class DecodedData {
+    // Outcome of decoding one received word.
+    public enum Status {
+        // Word was a codeword.
+        VALID,
+        // Word had at most 3 errors, which were corrected.
+        CORRECTED,
+        // Word had errors the code detects but cannot correct.
+        UNCORRECTABLE
+    }
+
+    private final byte[] bytes;
+    private final BitSet corrected;
+    private final BitSet uncorrectable;
+
+    // Number of codewords per block of the block bitmap.
+    private final int blockWords;
+
+    public DecodedData(byte[] bytes, BitSet corrected, BitSet uncorrectable, int blockWords) {
+        this.bytes = bytes;
+        this.corrected = corrected;
+        this.uncorrectable = uncorrectable;
+        this.blockWords = blockWords;
+    }
+
+    // array is not copied, so decoded bytes can be written out without another allocation.
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public Status getStatus(int word) {
+        if (uncorrectable.get(word)) {
+            return Status.UNCORRECTABLE;
+        }
+        return corrected.get(word) ? Status.CORRECTED : Status.VALID;
+    }
+
+    public int getCorrectedCount() {
+        return corrected.cardinality();
+    }
+
+    public int getUncorrectableCount() {
+        return uncorrectable.cardinality();
+    }
+
+    public int getBlockWords() {
+        return blockWords;
+    }
+
+    /**
+     * Finds blocks holding at least one uncorrectable word, which need to be sent again.
+     * @return bitmap with a bit set at index of every damaged block.
+     */
+    public BitSet getDamagedBlocks() {
+        return toBlocks(uncorrectable);
+    }
+
+    /**
+     * Finds blocks holding at least one corrected word, showing where the link is noisy.
+     * @return bitmap with a bit set at index of every corrected block.
+     */
+    public BitSet getCorrectedBlocks() {
+        return toBlocks(corrected);
+    }
+
+    private BitSet toBlocks(BitSet words) {
+        BitSet blocks = new BitSet();
+        for (int w = words.nextSetBit(0); w >= 0; w = words.nextSetBit(w + 1)) {
+            int block = w / blockWords;
+            blocks.set(block);
+            // rest of words in this block are already covered.
+            w = (block + 1) * blockWords - 1;
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,172 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class DecoderMetrics implements DecoderMetricsMBean {
+    // Highest number of errors a perfect code corrects, heavier corrections mean the word was decoded to a wrong codeword.
+    private static final int MAX_WEIGHT = 3;
+
+    // Words by corrected weight, LongAdder keeping contended increments of many decoding threads cheap.
+    private final LongAdder[] weights = new LongAdder[MAX_WEIGHT + 1];
+
+    private final LongAdder uncorrectable = new LongAdder();
+
+    private volatile long startNanos = System.nanoTime();
+
+    public DecoderMetrics() {
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts one decoded word.
+     * @param weight number of bits corrected in the word.
+     */
+    void record(int weight) {
+        if (weight > MAX_WEIGHT) {
+            uncorrectable.increment();
+        } else {
+            weights[weight].increment();
+        }
+    }
+
+    /**
+     * Counts words decoded without corrections, like undamaged words a batch decoder takes as they are.
+     * @param count number of words.
+     */
+    void recordClean(int count) {
+        weights[0].add(count);
+    }
+
+    /**
+     * Registers metrics in platform MBean server.
+     * @param name value of name key, distinguishing several decoders.
+     * @throws JMException when name is invalid or already registered.
+     * @return object name metrics are registered under.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("golay:type=DecoderMetrics,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Takes counters at one moment. Counters keep changing while they are summed, so totals of a busy decoder are approximate.
+     * @return immutable copy of counters.
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[weights.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = weights[i].sum();
+        }
+        return new Snapshot(counts, uncorrectable.sum(), System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public long getWordsDecoded() {
+        return snapshot().getWordsDecoded();
+    }
+
+    @Override
+    public long getValidWords() {
+        return weights[0].sum();
+    }
+
+    @Override
+    public long getCorrectedWords() {
+        return snapshot().getCorrectedWords();
+    }
+
+    @Override
+    public long getCorrectedWeight1() {
+        return weights[1].sum();
+    }
+
+    @Override
+    public long getCorrectedWeight2() {
+        return weights[2].sum();
+    }
+
+    @Override
+    public long getCorrectedWeight3() {
+        return weights[3].sum();
+    }
+
+    @Override
+    public long getUncorrectableWords() {
+        return uncorrectable.sum();
+    }
+
+    @Override
+    public long getBytesDecoded() {
+        return snapshot().getBytesDecoded();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return snapshot().getBytesPerSecond();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder weight : weights) {
+            weight.reset();
+        }
+        uncorrectable.reset();
+        startNanos = System.nanoTime();
+    }
+
+    public static class Snapshot {
+        private final long[] weights;
+        private final long uncorrectable;
+        private final long elapsedNanos;
+
+        public Snapshot(long[] weights, long uncorrectable, long elapsedNanos) {
+            this.weights = weights.clone();
+            this.uncorrectable = uncorrectable;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getWordsDecoded() {
+            long words = uncorrectable;
+            for (long count : weights) {
+                words += count;
+            }
+            return words;
+        }
+
+        /**
+         * Gets number of words whose correction changed given number of bits.
+         * @param weight number of corrected bits, 0 to 3.
+         * @return number of words.
+         */
+        public long getWords(int weight) {
+            return weights[weight];
+        }
+
+        public long getCorrectedWords() {
+            return getWordsDecoded() - weights[0] - uncorrectable;
+        }
+
+        public long getUncorrectableWords() {
+            return uncorrectable;
+        }
+
+        // every word carries 12 bits of decoded data.
+        public long getBytesDecoded() {
+            return getWordsDecoded() * 12 / 8;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getBytesDecoded() * 1e9 / elapsedNanos;
+        }
+    }
+}
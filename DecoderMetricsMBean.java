@@ -0,0 +1,25 @@
+/**
+ * Management interface of decoder metrics, exposed through JMX.
+ */
+public interface DecoderMetricsMBean {
+    long getWordsDecoded();
+
+    // words received without errors.
+    long getValidWords();
+
+    long getCorrectedWords();
+
+    long getCorrectedWeight1();
+
+    long getCorrectedWeight2();
+
+    long getCorrectedWeight3();
+
+    long getUncorrectableWords();
+
+    long getBytesDecoded();
+
+    double getBytesPerSecond();
+
+    void reset();
+}
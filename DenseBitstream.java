@@ -0,0 +1,170 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+public class DenseBitstream {
+    // Number of bits every codeword takes in the stream, without padding between words.
+    private final int codewordBits;
+
+    private final int mask;
+
+    /**
+     * Creates writer and reader of codewords packed back to back, first bit of stream being highest bit of first codeword.
+     * 23 bit codewords take 23 / 12 of unencoded size, 8 words filling exactly 23 bytes.
+     * @param codewordBits number of bits per codeword, from 1 to 24.
+     */
+    public DenseBitstream(int codewordBits) {
+        if (codewordBits <= 0 || codewordBits > 24) {
+            throw new IllegalArgumentException("Codeword must have from 1 to 24 bits");
+        }
+        this.codewordBits = codewordBits;
+        this.mask = (1 << codewordBits) - 1;
+    }
+
+    public int getCodewordBits() {
+        return codewordBits;
+    }
+
+    /**
+     * Counts bytes taken by codewords, last byte being completed with zero bits.
+     * @param wordCount number of codewords.
+     * @return number of bytes.
+     */
+    public int getByteCount(int wordCount) {
+        return (int) (((long) wordCount * codewordBits + 7) / 8);
+    }
+
+    /**
+     * Counts whole codewords held by bytes.
+     * @param byteCount number of bytes.
+     * @return number of codewords.
+     */
+    public int getWordCount(int byteCount) {
+        return (int) ((long) byteCount * 8 / codewordBits);
+    }
+
+    /**
+     * Writes codewords to array as a contiguous bitstream.
+     * @param codewords array of codewords.
+     * @param offset index of first codeword.
+     * @param count number of codewords.
+     * @param out array receiving getByteCount(count) bytes.
+     * @param outOffset index of first byte.
+     * @return number of bytes written.
+     */
+    public int write(int[] codewords, int offset, int count, byte[] out, int outOffset) {
+        // bits not yet written as a full byte, at most 7 left after every word.
+        long bits = 0;
+        int bitCount = 0;
+        int o = outOffset;
+
+        for (int i = offset; i < offset + count; i++) {
+            bits = (bits << codewordBits) | (codewords[i] & mask);
+            bitCount += codewordBits;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                out[o++] = (byte) (bits >>> bitCount);
+            }
+        }
+        if (bitCount > 0) {
+            out[o++] = (byte) (bits << (8 - bitCount));
+        }
+        return o - outOffset;
+    }
+
+    /**
+     * Writes codewords to buffer as a contiguous bitstream, starting at its position.
+     * @param codewords array of codewords.
+     * @param offset index of first codeword.
+     * @param count number of codewords.
+     * @param out buffer receiving getByteCount(count) bytes, its position being moved past them.
+     * @throws BufferOverflowException when fewer than getByteCount(count) bytes remain in buffer, nothing being written.
+     * @return number of bytes written.
+     */
+    public int write(int[] codewords, int offset, int count, ByteBuffer out) {
+        // checked up front, so array backed buffers are not written past their limit.
+        if (getByteCount(count) > out.remaining()) {
+            throw new BufferOverflowException();
+        }
+        if (out.hasArray()) {
+            int written = write(codewords, offset, count, out.array(), out.arrayOffset() + out.position());
+            out.position(out.position() + written);
+            return written;
+        }
+
+        long bits = 0;
+        int bitCount = 0;
+        int start = out.position();
+
+        for (int i = offset; i < offset + count; i++) {
+            bits = (bits << codewordBits) | (codewords[i] & mask);
+            bitCount += codewordBits;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                out.put((byte) (bits >>> bitCount));
+            }
+        }
+        if (bitCount > 0) {
+            out.put((byte) (bits << (8 - bitCount)));
+        }
+        return out.position() - start;
+    }
+
+    /**
+     * Reads codewords from any word of a bitstream, without reading the words before it.
+     * @param in array holding bitstream.
+     * @param inOffset index of first byte of bitstream.
+     * @param inLength number of bytes of bitstream.
+     * @param firstWord index of first codeword to read within bitstream.
+     * @param codewords array receiving codewords.
+     * @param offset index of first received codeword.
+     * @param count number of codewords.
+     */
+    public void read(byte[] in, int inOffset, int inLength, int firstWord, int[] codewords, int offset, int count) {
+        if (firstWord < 0 || firstWord + count > getWordCount(inLength)) {
+            throw new IndexOutOfBoundsException("Bitstream holds " + getWordCount(inLength) + " codewords");
+        }
+        for (int i = 0; i < count; i++) {
+            long bitPosition = (long) (firstWord + i) * codewordBits;
+            int index = (int) (bitPosition >>> 3);
+            int shift = (int) (bitPosition & 7);
+
+            // a word of up to 24 bits starting at any bit of a byte lies within 4 bytes, missing bytes at the end being zeroes.
+            int value = byteAt(in, inOffset, inLength, index) << 24 | byteAt(in, inOffset, inLength, index + 1) << 16
+                    | byteAt(in, inOffset, inLength, index + 2) << 8 | byteAt(in, inOffset, inLength, index + 3);
+            codewords[offset + i] = (value >>> (32 - shift - codewordBits)) & mask;
+        }
+    }
+
+    /**
+     * Reads codewords from any word of a bitstream held between buffer position and limit. Buffer position is not changed.
+     * @param in buffer holding bitstream.
+     * @param firstWord index of first codeword to read within bitstream.
+     * @param codewords array receiving codewords.
+     * @param offset index of first received codeword.
+     * @param count number of codewords.
+     */
+    public void read(ByteBuffer in, int firstWord, int[] codewords, int offset, int count) {
+        if (in.hasArray()) {
+            read(in.array(), in.arrayOffset() + in.position(), in.remaining(), firstWord, codewords, offset, count);
+            return;
+        }
+        if (firstWord < 0 || firstWord + count > getWordCount(in.remaining())) {
+            throw new IndexOutOfBoundsException("Bitstream holds " + getWordCount(in.remaining()) + " codewords");
+        }
+        for (int i = 0; i < count; i++) {
+            long bitPosition = (long) (firstWord + i) * codewordBits;
+            int index = in.position() + (int) (bitPosition >>> 3);
+            int shift = (int) (bitPosition & 7);
+
+            int value = 0;
+            for (int b = 0; b < 4; b++) {
+                value = (value << 8) | (index + b < in.limit() ? in.get(index + b) & 0xFF : 0);
+            }
+            codewords[offset + i] = (value >>> (32 - shift - codewordBits)) & mask;
+        }
+    }
+
+    private static int byteAt(byte[] bytes, int offset, int length, int index) {
+        return index < length ? bytes[offset + index] & 0xFF : 0;
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class DirectDecodeTable {
+    // Number of possible 23 bit received words.
+    public static final int SIZE = 1 << 23;
+
+    // Size of table stored in a file, 2 bytes per message.
+    public static final long FILE_SIZE = (long) SIZE * Short.BYTES;
+
+    // Corrected 12 bit message of every possible 23 bit received word.
+    private final ShortBuffer messages;
+
+    private DirectDecodeTable(ShortBuffer messages) {
+        this.messages = messages;
+    }
+
+    /**
+     * Builds table on heap by decoding every possible 23 bit word.
+     * @return table of 8M messages taking 16 MB of heap.
+     */
+    public static DirectDecodeTable build() {
+        short[] messages = new short[SIZE];
+        fill(ShortBuffer.wrap(messages));
+        return new DirectDecodeTable(ShortBuffer.wrap(messages));
+    }
+
+    /**
+     * Maps table from a file, building and writing the file first if it does not exist yet.
+     * Table is kept off heap and shared with other processes mapping the same file.
+     * @param path location of table file.
+     * @throws IOException when failed to create or map file.
+     * @return table backed by memory mapped file.
+     */
+    public static DirectDecodeTable load(Path path) throws IOException {
+        if (!Files.exists(path) || Files.size(path) != FILE_SIZE) {
+            // build in a temporary file so partially written table is never mapped.
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                fill(buffer.asShortBuffer());
+                buffer.force();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // mapping stays valid after channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            return new DirectDecodeTable(buffer.asShortBuffer());
+        }
+    }
+
+    /**
+     * Decodes 23 bit codeword with a single table load.
+     * @param codeword 23 bit codeword.
+     * @return corrected 12 bit message.
+     */
+    public int decode(int codeword) {
+        return messages.get(codeword & (SIZE - 1));
+    }
+
+    /**
+     * Writes corrected message of every 23 bit word to buffer.
+     * @param messages buffer of SIZE length.
+     */
+    private static void fill(ShortBuffer messages) {
+        GolayEncoder encoder = new GolayEncoder(GolayEncoder.DecodeMode.SYNDROME_TABLE);
+        for (int codeword = 0; codeword < SIZE; codeword++) {
+            messages.put(codeword, (short) encoder.decode23(codeword));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+public class EncodedData {
+    // Packed 23 or 24 bit codewords.
+    private final int[] codewords;
+
+    // Amount of added bits to missing vector length.
+    private final int overflow;
+
+    private final int codewordBits;
+
+    public EncodedData(int[] codewords, int overflow) {
+        this(codewords, overflow, 23);
+    }
+
+    public EncodedData(int[] codewords, int overflow, int codewordBits) {
+        this.codewords = codewords;
+        this.overflow = overflow;
+        this.codewordBits = codewordBits;
+    }
+
+    /**
+     * Returns packed codewords. Array is not copied, so changes are visible to every holder of this result.
+     * @return array of codewords.
+     */
+    public int[] getCodewords() {
+        return codewords;
+    }
+
+    public int getOverflow() {
+        return overflow;
+    }
+
+    public int getCodewordBits() {
+        return codewordBits;
+    }
+
+    public int size() {
+        return codewords.length;
+    }
+
+    /**
+     * Unpacks codewords into a new array of vector arrays.
+     * @return array of encoded vectors of codeword length.
+     */
+    public int[][] getVectors() {
+        int[][] vectors = new int[codewords.length][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = GolayEncoder.unpack(codewords[i], codewordBits);
+        }
+        return vectors;
+    }
+}
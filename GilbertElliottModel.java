@@ -0,0 +1,68 @@
+import java.util.SplittableRandom;
+
+public class GilbertElliottModel implements ChannelModel {
+    // Probability of moving from good to bad state after a bit.
+    private final double goodToBad;
+
+    // Probability of moving from bad to good state after a bit.
+    private final double badToGood;
+
+    // Bit error probability in good state.
+    private final double goodErrorRate;
+
+    // Bit error probability in bad state.
+    private final double badErrorRate;
+
+    private final SplittableRandom random;
+
+    private boolean bad;
+
+    public GilbertElliottModel(double goodToBad, double badToGood, double goodErrorRate, double badErrorRate) {
+        this(goodToBad, badToGood, goodErrorRate, badErrorRate, new SplittableRandom());
+    }
+
+    public GilbertElliottModel(double goodToBad, double badToGood, double goodErrorRate, double badErrorRate, long seed) {
+        this(goodToBad, badToGood, goodErrorRate, badErrorRate, new SplittableRandom(seed));
+    }
+
+    private GilbertElliottModel(double goodToBad, double badToGood, double goodErrorRate, double badErrorRate, SplittableRandom random) {
+        checkProbability(goodToBad, "Good to bad transition probability");
+        checkProbability(badToGood, "Bad to good transition probability");
+        checkProbability(goodErrorRate, "Good state error rate");
+        checkProbability(badErrorRate, "Bad state error rate");
+        this.goodToBad = goodToBad;
+        this.badToGood = badToGood;
+        this.goodErrorRate = goodErrorRate;
+        this.badErrorRate = badErrorRate;
+        this.random = random;
+    }
+
+    /**
+     * Average bit error probability once the chain has reached its stationary state.
+     * @return long run bit error rate.
+     */
+    public double getAverageErrorRate() {
+        double badShare = goodToBad / (goodToBad + badToGood);
+        return (1 - badShare) * goodErrorRate + badShare * badErrorRate;
+    }
+
+    private static void checkProbability(double probability, String name) {
+        if (probability < 0 || probability > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1");
+        }
+    }
+
+    @Override
+    public int nextMask(int bits) {
+        int mask = 0;
+        for (int bit = bits - 1; bit >= 0; bit--) {
+            if (random.nextDouble() < (bad ? badErrorRate : goodErrorRate)) {
+                mask |= 1 << bit;
+            }
+            if (random.nextDouble() < (bad ? badToGood : goodToBad)) {
+                bad = !bad;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,344 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class GolayCli {
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "usage: java -jar golay-code.jar <encode|decode|simulate> [options] <file|directory|glob>...",
+            "  --out <directory>     directory of output files, keeping paths below walked directories, next to input files by default",
+            "  --error-rate <p>      bit flip probability of simulated channel, 0.01 by default",
+            "  --parallel <n>        number of files processed at a time, 2 per processor by default",
+            "  --bits <23|24>        codeword length of encode and simulate, 23 by default, decode reading it from container",
+            "  --mode <mode>         decode mode: ALGEBRAIC, SYNDROME_TABLE or DIRECT_TABLE, SYNDROME_TABLE by default");
+
+    // Extension of encoded containers.
+    private static final String EXTENSION = ".golay";
+
+    // Payload bytes a simulated file is sent in, bounding memory taken by every file in flight.
+    private static final int SIMULATION_BLOCK = 3 * (1 << 16);
+
+    private final String command;
+    private final GolayEncoder encoder;
+    private final double errorRate;
+
+    // Directory of output files, null when they are written next to input files.
+    private final Path outputDirectory;
+
+    // Number of files read, encoded and written at a time, bounding open files and memory.
+    private final int maxInFlight;
+
+    private final LongAdder inputBytes = new LongAdder();
+    private final LongAdder processedFiles = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+    private final LongAdder damagedBlocks = new LongAdder();
+    private final LongAdder byteErrors = new LongAdder();
+
+    public GolayCli(String command, GolayEncoder encoder, double errorRate, Path outputDirectory, int maxInFlight) {
+        this.command = command;
+        this.encoder = encoder;
+        this.errorRate = errorRate;
+        this.outputDirectory = outputDirectory;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            exitWithUsage("Missing command");
+        }
+        String command = args[0];
+        if (!command.equals("encode") && !command.equals("decode") && !command.equals("simulate")) {
+            exitWithUsage("Unknown command " + command);
+        }
+
+        Path outputDirectory = null;
+        double errorRate = 0.01;
+        int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        int codewordBits = 23;
+        GolayEncoder.DecodeMode mode = GolayEncoder.DecodeMode.SYNDROME_TABLE;
+        List<String> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    inputs.add(arg);
+                    continue;
+                }
+                if (i + 1 == args.length) {
+                    exitWithUsage("Missing value of " + arg);
+                }
+                String value = args[++i];
+                switch (arg) {
+                    case "--out" -> outputDirectory = Path.of(value);
+                    case "--error-rate" -> errorRate = Double.parseDouble(value);
+                    case "--parallel" -> maxInFlight = Integer.parseInt(value);
+                    case "--bits" -> codewordBits = Integer.parseInt(value);
+                    case "--mode" -> mode = GolayEncoder.DecodeMode.valueOf(value.toUpperCase(Locale.ROOT));
+                    default -> exitWithUsage("Unknown option " + arg);
+                }
+            }
+            if (inputs.isEmpty()) {
+                exitWithUsage("Missing input files");
+            }
+            if (maxInFlight <= 0 || errorRate < 0 || errorRate > 1) {
+                exitWithUsage("Invalid option value");
+            }
+
+            GolayEncoder encoder = new GolayEncoder(mode).withCodewordBits(codewordBits);
+            GolayCli cli = new GolayCli(command, encoder, errorRate, outputDirectory, maxInFlight);
+            System.exit(cli.run(findFiles(inputs)) ? 0 : 1);
+        } catch (IllegalArgumentException e) {
+            exitWithUsage("Invalid option value: " + e.getMessage());
+        }
+    }
+
+    private static void exitWithUsage(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /**
+     * Processes every file on its own virtual thread, at most maxInFlight files at a time, then prints totals.
+     * Nothing is processed when two files would be written to the same output file.
+     * @param files files to process.
+     * @throws InterruptedException when interrupted while waiting for a free slot.
+     * @return true if every file was processed.
+     */
+    public boolean run(List<InputFile> files) throws InterruptedException {
+        if (!command.equals("simulate")) {
+            Set<Path> targets = new HashSet<>();
+            for (InputFile file : files) {
+                Path target = getOutputPath(file).toAbsolutePath().normalize();
+                if (!targets.add(target)) {
+                    System.err.println(file.getPath() + ": output file " + target + " is written by another input file");
+                    return false;
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (InputFile file : files) {
+                // next file starts only when a slot is free, so threads do not pile up holding buffers.
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        process(file);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        printTotals(elapsed);
+        return failedFiles.sum() == 0;
+    }
+
+    private void process(InputFile file) {
+        try {
+            switch (command) {
+                case "encode" -> encode(file.getPath(), getOutputPath(file));
+                case "decode" -> decode(file.getPath(), getOutputPath(file));
+                default -> simulate(file.getPath());
+            }
+            processedFiles.increment();
+        } catch (IOException | RuntimeException e) {
+            failedFiles.increment();
+            System.err.println(file.getPath() + ": " + e);
+        }
+    }
+
+    /**
+     * Encodes file into a container, streaming one block at a time.
+     */
+    private void encode(Path file, Path target) throws IOException {
+        long size = Files.size(file);
+        createParent(target);
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+            new GolayContainer(encoder).write(in, size, 0, GolayContainer.DEFAULT_BLOCK_SIZE, out);
+        }
+        inputBytes.add(size);
+    }
+
+    /**
+     * Decodes container file of any size, reading one block at a time with codeword length written in its header.
+     */
+    private void decode(Path file, Path target) throws IOException {
+        createParent(target);
+
+        BitSet failedBlocks;
+        try (FileChannel channel = FileChannel.open(file);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+            failedBlocks = new GolayContainer(encoder).decode(channel, out);
+            inputBytes.add(channel.size());
+        }
+
+        if (!failedBlocks.isEmpty()) {
+            damagedBlocks.add(failedBlocks.cardinality());
+            System.out.println(file + ": damaged blocks " + failedBlocks);
+        }
+    }
+
+    /**
+     * Sends file through a noisy channel block by block and counts bytes that differ after decoding.
+     */
+    private void simulate(Path file) throws IOException {
+        Channel channel = new Channel(errorRate);
+        channel.setSkipSampling(true);
+        channel.setCodewordBits(encoder.getCodewordBits());
+
+        long size = 0;
+        long errors = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            byte[] block;
+            while ((block = in.readNBytes(SIMULATION_BLOCK)).length > 0) {
+                EncodedData encoded = encoder.encodeWords(block);
+                channel.send(encoded, 0);
+                byte[] decoded = encoder.decodeWords(encoded.getCodewords(), encoded.getOverflow());
+
+                for (int i = 0; i < block.length; i++) {
+                    if (block[i] != decoded[i]) {
+                        errors++;
+                    }
+                }
+                size += block.length;
+            }
+        }
+
+        inputBytes.add(size);
+        byteErrors.add(errors);
+        System.out.println(file + ": byte errors " + errors + " of " + size);
+    }
+
+    /**
+     * Resolves output file of a command. With output directory, file keeps its path below the walked directory,
+     * so files of the same name in different directories do not overwrite each other.
+     * @param file input file.
+     * @return output file.
+     */
+    private Path getOutputPath(InputFile file) {
+        String name = file.getRelativePath().getFileName().toString();
+        if (command.equals("encode")) {
+            name += EXTENSION;
+        } else {
+            name = name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name + ".decoded";
+        }
+
+        if (outputDirectory == null) {
+            return file.getPath().toAbsolutePath().resolveSibling(name);
+        }
+        return outputDirectory.resolve(file.getRelativePath()).resolveSibling(name);
+    }
+
+    private static void createParent(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private void printTotals(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long bytes = inputBytes.sum();
+        System.out.printf(Locale.ROOT, "files %d, failed %d, bytes %d, %.3f s, %.1f MB/s%n",
+                processedFiles.sum(), failedFiles.sum(), bytes, seconds, seconds == 0 ? 0 : bytes / seconds / 1e6);
+        if (command.equals("decode")) {
+            System.out.println("damaged blocks " + damagedBlocks.sum());
+        } else if (command.equals("simulate")) {
+            System.out.printf(Locale.ROOT, "byte errors %d, byte error rate %e%n",
+                    byteErrors.sum(), bytes == 0 ? 0 : (double) byteErrors.sum() / bytes);
+        }
+    }
+
+    /**
+     * Expands arguments into regular files. Directories are walked recursively and globs are matched below
+     * their longest directory prefix without glob characters.
+     * @param inputs file, directory or glob arguments.
+     * @throws IOException when a directory cannot be walked.
+     * @return list of files.
+     */
+    private static List<InputFile> findFiles(List<String> inputs) throws IOException {
+        List<InputFile> files = new ArrayList<>();
+        for (String input : inputs) {
+            int glob = indexOfGlob(input);
+            if (glob < 0) {
+                Path path = Path.of(input);
+                if (Files.isDirectory(path)) {
+                    walk(path, null, files);
+                } else {
+                    files.add(new InputFile(path, path.getFileName()));
+                }
+                continue;
+            }
+
+            int separator = Math.max(input.lastIndexOf('/', glob), input.lastIndexOf(File.separatorChar, glob));
+            Path base = Path.of(separator < 0 ? "." : input.substring(0, separator + 1));
+            // walked paths start with base, so a pattern without directory is matched below current directory.
+            String pattern = separator < 0 ? "." + File.separator + input : input;
+            walk(base, FileSystems.getDefault().getPathMatcher("glob:" + pattern), files);
+        }
+        return files;
+    }
+
+    private static int indexOfGlob(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void walk(Path directory, PathMatcher matcher, List<InputFile> files) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher == null || matcher.matches(path))
+                    .forEach(path -> files.add(new InputFile(path, directory.relativize(path))));
+        }
+    }
+
+    public static class InputFile {
+        private final Path path;
+
+        // Path below the walked directory, or file name of a file given directly.
+        private final Path relativePath;
+
+        public InputFile(Path path, Path relativePath) {
+            this.path = path;
+            this.relativePath = relativePath;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public Path getRelativePath() {
+            return relativePath;
+        }
+    }
+}
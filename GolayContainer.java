@@ -0,0 +1,438 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+public class GolayContainer {
+    // "GLAY" marking start of a container.
+    public static final int MAGIC = 0x474C4159;
+
+    public static final int VERSION = 1;
+
+    // Default payload bytes per block, a multiple of 3 so blocks hold whole codeword pairs.
+    public static final int DEFAULT_BLOCK_SIZE = 3 * 21845;
+
+    // Header fields: magic, version, codeword bits, payload length, padding, protected region, block size, CRC32 of fields.
+    private static final int HEADER_FIELDS = 4 + 1 + 1 + 8 + 1 + 4 + 4 + 4;
+
+    // Header fields padded to whole 3 byte groups.
+    private static final int HEADER_GROUPS = (HEADER_FIELDS + 2) / 3;
+
+    // Size of encoded header at the start of every container.
+    public static final int HEADER_BYTES = HEADER_GROUPS * 2 * GolayEncoder.CODEWORD_BYTES;
+
+    // CRC32 appended to block payload, padded with zeroes to 2 groups of 3 bytes.
+    private static final int CRC_BYTES = 6;
+
+    private final GolayEncoder encoder;
+
+    public GolayContainer(GolayEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    /**
+     * Writes array of bytes as a container.
+     * @param payload bytes to encode.
+     * @param protectedRegion number of leading payload bytes a channel should leave untouched, for example a file header.
+     * @param blockSize payload bytes per block, a multiple of 3.
+     * @param out stream receiving container.
+     * @throws IOException when failed to write stream.
+     */
+    public void write(byte[] payload, int protectedRegion, int blockSize, OutputStream out) throws IOException {
+        write(new ByteArrayInputStream(payload), payload.length, protectedRegion, blockSize, out);
+    }
+
+    /**
+     * Writes bytes of input stream as a container, holding one block in memory at a time.
+     * @param in stream of bytes to encode.
+     * @param payloadLength number of bytes read from stream.
+     * @param protectedRegion number of leading payload bytes a channel should leave untouched, for example a file header.
+     * @param blockSize payload bytes per block, a multiple of 3.
+     * @param out stream receiving container.
+     * @throws IOException when failed to read or write stream, or when stream ends before payload length.
+     */
+    public void write(InputStream in, long payloadLength, int protectedRegion, int blockSize, OutputStream out) throws IOException {
+        if (blockSize <= 0 || blockSize % 3 != 0) {
+            throw new IllegalArgumentException("Block size must be a positive multiple of 3");
+        }
+
+        Header header = new Header(payloadLength, protectedRegion, blockSize, encoder.getCodewordBits());
+        out.write(header.encode(encoder));
+
+        byte[] block = new byte[blockSize + CRC_BYTES];
+        byte[] encoded = new byte[encodedSize(block.length)];
+        CRC32 crc = new CRC32();
+
+        for (int b = 0; b < header.getBlockCount(); b++) {
+            int length = header.getBlockLength(b);
+            if (in.readNBytes(block, 0, length) != length) {
+                throw new IOException("Stream ended before payload length");
+            }
+
+            // last block is completed with zeroes to whole groups, followed by CRC of its payload.
+            int padded = length + header.getPadding(b);
+            Arrays.fill(block, length, padded + CRC_BYTES, (byte) 0);
+            crc.reset();
+            crc.update(block, 0, length);
+            ByteBuffer.wrap(block, padded, 4).putInt((int) crc.getValue());
+
+            int groups = (padded + CRC_BYTES) / 3;
+            encoder.encodeBlock(block, 0, groups, encoded, 0);
+            out.write(encoded, 0, encodedSize(padded + CRC_BYTES));
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads header at the start of a container.
+     * @param container encoded container, read from index 0.
+     * @throws IOException when header cannot be recovered.
+     * @return decoded header.
+     */
+    public Header readHeader(ByteBuffer container) throws IOException {
+        if (container.limit() < HEADER_BYTES) {
+            throw new IOException("Container is shorter than its header");
+        }
+        byte[] encoded = new byte[HEADER_BYTES];
+        container.get(0, encoded);
+        // 23 bit decoder reads header of either codeword length by ignoring parity bits.
+        return Header.decode(encoder.withCodewordBits(23), encoded);
+    }
+
+    /**
+     * Reads header at the start of a container file.
+     * @param container channel of encoded container, read from position 0.
+     * @throws IOException when header cannot be read or recovered.
+     * @return decoded header.
+     */
+    public Header readHeader(FileChannel container) throws IOException {
+        byte[] encoded = new byte[HEADER_BYTES];
+        readFully(container, 0, encoded);
+        return Header.decode(encoder.withCodewordBits(23), encoded);
+    }
+
+    /**
+     * Decodes one block, independently of other blocks.
+     * @param container encoded container.
+     * @param header header of container.
+     * @param index index of block.
+     * @param payload array receiving block payload at its position in whole payload.
+     * @return true if CRC of decoded block matches.
+     */
+    public boolean decodeBlock(ByteBuffer container, Header header, int index, byte[] payload) {
+        return decodeBlock(container, header, index, payload, (int) ((long) index * header.getBlockSize()));
+    }
+
+    /**
+     * Decodes one block into given position of an array.
+     * @param container encoded container.
+     * @param header header of container.
+     * @param index index of block.
+     * @param target array receiving block payload.
+     * @param offset index of first payload byte in target.
+     * @return true if CRC of decoded block matches.
+     */
+    private boolean decodeBlock(ByteBuffer container, Header header, int index, byte[] target, int offset) {
+        byte[] encoded = new byte[getEncodedBlockSize(header, index)];
+        container.get((int) header.getBlockOffset(index), encoded);
+        return decodeBlock(encoded, header, index, target, offset);
+    }
+
+    /**
+     * Decodes one block already read from container.
+     * @param encoded encoded block.
+     * @param header header of container.
+     * @param index index of block.
+     * @param target array receiving block payload.
+     * @param offset index of first payload byte in target.
+     * @return true if CRC of decoded block matches.
+     */
+    private boolean decodeBlock(byte[] encoded, Header header, int index, byte[] target, int offset) {
+        int length = header.getBlockLength(index);
+        int padded = length + header.getPadding(index);
+
+        byte[] block = new byte[padded + CRC_BYTES];
+        getBlockEncoder(header).decodeBlock(encoded, 0, block.length / 3, block, 0);
+
+        CRC32 crc = new CRC32();
+        crc.update(block, 0, length);
+        System.arraycopy(block, 0, target, offset, length);
+        return ByteBuffer.wrap(block, padded, 4).getInt() == (int) crc.getValue();
+    }
+
+    /**
+     * Decodes every block of a container in parallel.
+     * @param container encoded container, for example a memory mapped file.
+     * @throws IOException when header cannot be recovered.
+     * @return decoded payload with indexes of blocks whose CRC does not match.
+     */
+    public Decoded decode(ByteBuffer container) throws IOException {
+        Header header = readHeader(container);
+        if (header.getContainerSize() > container.limit()) {
+            throw new IOException("Container is shorter than its header describes");
+        }
+        if (header.getPayloadLength() > Integer.MAX_VALUE - 8) {
+            throw new IOException("Payload does not fit an array, decode blocks one by one");
+        }
+
+        byte[] payload = new byte[(int) header.getPayloadLength()];
+        BitSet failedBlocks = new BitSet(header.getBlockCount());
+
+        IntStream.range(0, header.getBlockCount()).parallel().forEach(b -> {
+            if (!decodeBlock(container, header, b, payload)) {
+                synchronized (failedBlocks) {
+                    failedBlocks.set(b);
+                }
+            }
+        });
+
+        return new Decoded(header, payload, failedBlocks);
+    }
+
+    /**
+     * Decodes blocks of a container one by one to a stream, holding one block in memory at a time.
+     * Damaged blocks are written as decoded, so output keeps its length.
+     * @param container encoded container, for example a memory mapped file.
+     * @param out stream receiving payload.
+     * @throws IOException when header cannot be recovered or failed to write stream.
+     * @return indexes of blocks whose CRC does not match.
+     */
+    public BitSet decode(ByteBuffer container, OutputStream out) throws IOException {
+        Header header = readHeader(container);
+        if (header.getContainerSize() > container.limit()) {
+            throw new IOException("Container is shorter than its header describes");
+        }
+
+        byte[] payload = new byte[header.getBlockSize()];
+        BitSet failedBlocks = new BitSet(header.getBlockCount());
+        for (int b = 0; b < header.getBlockCount(); b++) {
+            if (!decodeBlock(container, header, b, payload, 0)) {
+                failedBlocks.set(b);
+            }
+            out.write(payload, 0, header.getBlockLength(b));
+        }
+        out.flush();
+        return failedBlocks;
+    }
+
+    /**
+     * Decodes blocks of a container file one by one to a stream, reading every block at its position,
+     * so containers of any size are decoded holding one block in memory at a time.
+     * Damaged blocks are written as decoded, so output keeps its length.
+     * @param container channel of encoded container.
+     * @param out stream receiving payload.
+     * @throws IOException when header cannot be recovered, container is truncated or failed to write stream.
+     * @return indexes of blocks whose CRC does not match.
+     */
+    public BitSet decode(FileChannel container, OutputStream out) throws IOException {
+        Header header = readHeader(container);
+        if (header.getContainerSize() > container.size()) {
+            throw new IOException("Container is shorter than its header describes");
+        }
+
+        byte[] encoded = new byte[getEncodedBlockSize(header, 0)];
+        byte[] payload = new byte[header.getBlockSize()];
+        BitSet failedBlocks = new BitSet(header.getBlockCount());
+        for (int b = 0; b < header.getBlockCount(); b++) {
+            int size = getEncodedBlockSize(header, b);
+            readFully(container, header.getBlockOffset(b), encoded, size);
+            if (!decodeBlock(encoded, header, b, payload, 0)) {
+                failedBlocks.set(b);
+            }
+            out.write(payload, 0, header.getBlockLength(b));
+        }
+        out.flush();
+        return failedBlocks;
+    }
+
+    private static void readFully(FileChannel channel, long position, byte[] bytes) throws IOException {
+        readFully(channel, position, bytes, bytes.length);
+    }
+
+    /**
+     * Reads bytes at given position of a file without moving channel position.
+     * @throws IOException when file ends before bytes are read.
+     */
+    private static void readFully(FileChannel channel, long position, byte[] bytes, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Container is shorter than its header describes");
+            }
+        }
+    }
+
+    /**
+     * Picks encoder of container blocks, using codeword length the container was written with whatever this encoder uses.
+     * @param header header of container.
+     * @return encoder decoding blocks.
+     */
+    private GolayEncoder getBlockEncoder(Header header) {
+        if (header.getCodewordBits() == encoder.getCodewordBits()) {
+            return encoder;
+        }
+        return encoder.withCodewordBits(header.getCodewordBits());
+    }
+
+    /**
+     * Counts encoded bytes of a block with its padding and CRC.
+     * @param header header of container.
+     * @param index index of block.
+     * @return number of encoded bytes.
+     */
+    private static int getEncodedBlockSize(Header header, int index) {
+        if (header.getBlockCount() == 0) {
+            return 0;
+        }
+        return encodedSize(header.getBlockLength(index) + header.getPadding(index) + CRC_BYTES);
+    }
+
+    /**
+     * Counts encoded bytes of whole groups.
+     * @param length number of unencoded bytes, a multiple of 3.
+     * @return number of encoded bytes.
+     */
+    private static int encodedSize(int length) {
+        return length / 3 * 2 * GolayEncoder.CODEWORD_BYTES;
+    }
+
+    public static class Header {
+        private final long payloadLength;
+        private final int protectedRegion;
+        private final int blockSize;
+        private final int codewordBits;
+
+        public Header(long payloadLength, int protectedRegion, int blockSize) {
+            this(payloadLength, protectedRegion, blockSize, 23);
+        }
+
+        public Header(long payloadLength, int protectedRegion, int blockSize, int codewordBits) {
+            this.payloadLength = payloadLength;
+            this.protectedRegion = protectedRegion;
+            this.blockSize = blockSize;
+            this.codewordBits = codewordBits;
+        }
+
+        public long getPayloadLength() {
+            return payloadLength;
+        }
+
+        public int getProtectedRegion() {
+            return protectedRegion;
+        }
+
+        public int getBlockSize() {
+            return blockSize;
+        }
+
+        public int getCodewordBits() {
+            return codewordBits;
+        }
+
+        public int getBlockCount() {
+            return (int) ((payloadLength + blockSize - 1) / blockSize);
+        }
+
+        // number of payload bytes in block, only the last block being shorter.
+        public int getBlockLength(int index) {
+            return (int) Math.min(blockSize, payloadLength - (long) index * blockSize);
+        }
+
+        // number of zero bytes completing block to whole groups.
+        public int getPadding(int index) {
+            return (3 - getBlockLength(index) % 3) % 3;
+        }
+
+        // position of encoded block in container, every block before the last having the same size.
+        public long getBlockOffset(int index) {
+            return HEADER_BYTES + (long) index * encodedSize(blockSize + CRC_BYTES);
+        }
+
+        public long getContainerSize() {
+            int last = getBlockCount() - 1;
+            if (last < 0) {
+                return HEADER_BYTES;
+            }
+            return getBlockOffset(last) + encodedSize(getBlockLength(last) + getPadding(last) + CRC_BYTES);
+        }
+
+        private byte[] encode(GolayEncoder encoder) {
+            byte[] fields = new byte[HEADER_GROUPS * 3];
+            ByteBuffer buffer = ByteBuffer.wrap(fields);
+            buffer.putInt(MAGIC);
+            buffer.put((byte) VERSION);
+            buffer.put((byte) codewordBits);
+            buffer.putLong(payloadLength);
+            buffer.put((byte) (payloadLength == 0 ? 0 : getPadding(getBlockCount() - 1)));
+            buffer.putInt(protectedRegion);
+            buffer.putInt(blockSize);
+
+            CRC32 crc = new CRC32();
+            crc.update(fields, 0, buffer.position());
+            buffer.putInt((int) crc.getValue());
+
+            byte[] encoded = new byte[HEADER_BYTES];
+            encoder.encodeBlock(fields, 0, HEADER_GROUPS, encoded, 0);
+            return encoded;
+        }
+
+        private static Header decode(GolayEncoder encoder, byte[] encoded) throws IOException {
+            byte[] fields = new byte[HEADER_GROUPS * 3];
+            encoder.decodeBlock(encoded, 0, HEADER_GROUPS, fields, 0);
+
+            ByteBuffer buffer = ByteBuffer.wrap(fields);
+            int magic = buffer.getInt();
+            int version = buffer.get();
+            int codewordBits = buffer.get();
+            long payloadLength = buffer.getLong();
+            buffer.get();
+            int protectedRegion = buffer.getInt();
+            int blockSize = buffer.getInt();
+
+            CRC32 crc = new CRC32();
+            crc.update(fields, 0, buffer.position());
+            if (buffer.getInt() != (int) crc.getValue() || magic != MAGIC) {
+                throw new IOException("Container header is damaged beyond correction");
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported container version " + version);
+            }
+            if (codewordBits != 23 && codewordBits != 24) {
+                throw new IOException("Unsupported container codeword length " + codewordBits);
+            }
+
+            return new Header(payloadLength, protectedRegion, blockSize, codewordBits);
+        }
+    }
+
+    public static class Decoded {
+        private final Header header;
+        private final byte[] payload;
+        private final BitSet failedBlocks;
+
+        public Decoded(Header header, byte[] payload, BitSet failedBlocks) {
+            this.header = header;
+            this.payload = payload;
+            this.failedBlocks = failedBlocks;
+        }
+
+        public Header getHeader() {
+            return header;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        // indexes of blocks to skip or request again.
+        public BitSet getFailedBlocks() {
+            return failedBlocks;
+        }
+    }
+}
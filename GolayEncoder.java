@@ -1,64 +1,199 @@
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
 
 public class GolayEncoder {
-    // 12 x 23 matrix for encoding.
-    private final int[][] generatorMatrix;
+    // Strategies for finding error pattern of received word.
+    public enum DecodeMode {
+        // Runs syndrome decoding algorithm for every word.
+        ALGEBRAIC,
+        // Looks error pattern up from a table indexed by syndrome.
+        SYNDROME_TABLE,
+        // Looks corrected message up from a table indexed by the whole received word.
+        DIRECT_TABLE
+    }
+
+    // Number of bytes a codeword takes in encoded streams.
+    public static final int CODEWORD_BYTES = 3;
+
+    // Number of codewords processed per chunk of a stream, even so chunks hold whole 3 byte groups.
+    private static final int CHUNK_WORDS = 8192;
+
+    // Number of 3 byte groups processed by one parallel task, keeping its bytes and codewords in cache.
+    private static final int PARALLEL_GROUPS = 1 << 14;
+
+    // Number of 3 byte groups in one memory mapped region, mapping 3 MB of unencoded and 6 MB of encoded bytes.
+    private static final int MAPPED_GROUPS = 1 << 20;
 
-    // 24 x 12 parity check matrix.
-    private final int[][] controlMatrix;
+    // Error pattern table value of syndrome that algorithm cannot correct.
+    public static final int UNCORRECTABLE = -1;
 
-    // Amount of added bits to missing vector length.
-    private int overflow;
+    // Encoded 23 bit codeword of every possible 12 bit message.
+    private static final int[] ENCODE_TABLE = generateEncodeTable(packRows(generateGeneratorMatrix()));
+
+    // Encoded 24 bit codeword of every possible 12 bit message, even parity bit of the 23 bit codeword taking bit 23.
+    private static final int[] EXTENDED_ENCODE_TABLE = generateExtendedEncodeTable(ENCODE_TABLE);
+
+    // 24 x 12 parity check matrix, rows packed as 12 bit words.
+    private static final int[] CONTROL_ROWS = packRows(generateControlMatrix());
+
+    // Syndromes of every possible first and last 12 bits of a 24 bit word, summed to get the word's syndrome.
+    private static final int[] HIGH_SYNDROMES = generateHalfSyndromeTable(0);
+    private static final int[] LOW_SYNDROMES = generateHalfSyndromeTable(12);
+
+    // Error pattern of every possible 12 bit syndrome.
+    private static final int[] SYNDROME_TABLE = generateSyndromeTable();
 
     // Flag indicating if received data should be corrected.
-    private boolean fixErrors;
+    private final boolean fixErrors;
+
+    // Strategy used to find error patterns.
+    private final DecodeMode decodeMode;
 
-    // On Init generate unchanging Matrices.
+    // Message of every received word for DIRECT_TABLE mode, null when shared table is used.
+    private final DirectDecodeTable directTable;
+
+    // Counters of decoded words, null when decoding is not measured.
+    private final DecoderMetrics metrics;
+
+    // Number of transmitted bits per codeword, 23 for perfect code or 24 for extended code with a real parity bit.
+    private final int codewordBits;
+
+    // Codeword of every message for current codeword length.
+    private final int[] encodeTable;
+
+    // Matrices and tables are generated once per JVM, so encoders are cheap to create and safe to share between threads.
     public GolayEncoder() {
-        this.generatorMatrix = generateGeneratorMatrix();
-        this.controlMatrix = generateControlMatrix();
-        this.fixErrors = true;
+        this(DecodeMode.ALGEBRAIC, true);
     }
 
-    public int getOverflow() {
-        return overflow;
+    public GolayEncoder(boolean fixErrors) {
+        this(DecodeMode.ALGEBRAIC, fixErrors);
     }
 
-    public void setFixErrors(boolean fixErrors) {
+    public GolayEncoder(DecodeMode decodeMode) {
+        this(decodeMode, true);
+    }
+
+    public GolayEncoder(DecodeMode decodeMode, boolean fixErrors) {
+        this.decodeMode = decodeMode;
         this.fixErrors = fixErrors;
+        this.directTable = null;
+        this.metrics = null;
+        this.codewordBits = 23;
+        this.encodeTable = ENCODE_TABLE;
+    }
+
+    // Uses DIRECT_TABLE mode with given table, for example one mapped from a file.
+    public GolayEncoder(DirectDecodeTable directTable, boolean fixErrors) {
+        this.decodeMode = DecodeMode.DIRECT_TABLE;
+        this.fixErrors = fixErrors;
+        this.directTable = directTable;
+        this.metrics = null;
+        this.codewordBits = 23;
+        this.encodeTable = ENCODE_TABLE;
+    }
+
+    private GolayEncoder(GolayEncoder encoder, DecoderMetrics metrics, int codewordBits) {
+        this.decodeMode = encoder.decodeMode;
+        this.fixErrors = encoder.fixErrors;
+        this.directTable = encoder.directTable;
+        this.metrics = metrics;
+        this.codewordBits = codewordBits;
+        this.encodeTable = codewordBits == 24 ? EXTENDED_ENCODE_TABLE : ENCODE_TABLE;
     }
 
     /**
-     * Encodes file to an array of vector arrays given file path
+     * Creates encoder with the same settings counting every decoded word in given metrics.
+     * Encoders that do not fix errors count nothing, as none of their words is corrected.
+     * @param metrics counters shared by any number of encoders and threads, null to stop counting.
+     * @return new encoder.
+     */
+    public GolayEncoder withMetrics(DecoderMetrics metrics) {
+        return new GolayEncoder(this, metrics, codewordBits);
+    }
+
+    /**
+     * Creates encoder with the same settings using given codeword length.
+     * 24 bit codewords carry a real parity bit as bit 23, filling the spare bit of 3 byte stream words,
+     * so 4 bit errors are detected instead of miscorrected. Masking bit 23 turns them back into 23 bit codewords.
+     * @param codewordBits 23 for perfect [23,12,7] code, 24 for extended [24,12,8] code.
+     * @return new encoder.
+     */
+    public GolayEncoder withCodewordBits(int codewordBits) {
+        if (codewordBits != 23 && codewordBits != 24) {
+            throw new IllegalArgumentException("Codeword must have 23 or 24 bits");
+        }
+        return new GolayEncoder(this, metrics, codewordBits);
+    }
+
+    public boolean isFixErrors() {
+        return fixErrors;
+    }
+
+    public DecodeMode getDecodeMode() {
+        return decodeMode;
+    }
+
+    public DecoderMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getCodewordBits() {
+        return codewordBits;
+    }
+
+    /**
+     * Encodes file given file path
      * @param path path to file location
      * @throws IOException when failed to read file
-     * @return array of 23 length encoded vectors
+     * @return encoded codewords with number of added bits
      */
-    public int[][] encodeFile(String path) throws IOException {
+    public EncodedData encodeFile(String path) throws IOException {
         byte[] bytes = Files.readAllBytes(Path.of(path));
-        return getEncodedVectors(bytes);
+        return encodeWords(bytes);
     }
 
     /**
-     * Encodes string of text to an array of vector arrays
+     * Encodes string of text
      * @param text text to encode
-     * @return array of 23 length encoded vectors
+     * @return encoded codewords with number of added bits
      */
-    public int[][] encode(String text) {
+    public EncodedData encode(String text) {
         byte[] bytes = text.getBytes();
-        return getEncodedVectors(bytes);
+        return encodeWords(bytes);
     }
 
     /**
      * Encodes one vector
      * @param vector input 12 length vector
-     * @return 23 length encoded vector
+     * @return encoded vector of codeword length
      */
     public int[] encode(int[] vector) {
-        return multiply(vector, this.generatorMatrix);
+        return unpack(encode12(pack(vector)), codewordBits);
+    }
+
+    /**
+     * Encodes one message packed into an integer. Bit 11 holds the first vector value, bit 0 the last.
+     * @param message 12 bit message.
+     * @return encoded codeword of codeword length, 23 bit codeword with parity as bit 23 for 24 bit codewords.
+     */
+    public int encode12(int message) {
+        return encodeTable[message & 0xFFF];
     }
 
     /**
@@ -85,28 +220,366 @@ public class GolayEncoder {
     }
 
     /**
-     * Decodes 23 length vector
-     * @param vector 23 length vector.
+     * Encodes bytes of input stream to output stream in fixed size chunks. Every codeword is written as 3 big-endian bytes.
+     * @param in stream of unencoded bytes, read until its end.
+     * @param out stream receiving encoded codewords.
+     * @throws IOException when failed to read or write stream.
+     * @return number of additional bits to complete full vector.
+     */
+    public int encode(InputStream in, OutputStream out) throws IOException {
+        byte[] input = new byte[CHUNK_WORDS / 2 * 3];
+        byte[] output = new byte[CHUNK_WORDS * CODEWORD_BYTES];
+
+        // bytes left from previous chunk that did not make a full 3 byte group.
+        int carry = 0;
+        int read;
+        while ((read = in.read(input, carry, input.length - carry)) != -1) {
+            int length = carry + read;
+            int groups = length / 3;
+            encodeBlock(input, 0, groups, output, 0);
+            out.write(output, 0, groups * 2 * CODEWORD_BYTES);
+
+            carry = length - groups * 3;
+            System.arraycopy(input, groups * 3, input, 0, carry);
+        }
+
+        // to fill missing vector length last bytes are completed with zeroes.
+        int overflow;
+        int words;
+        if (carry == 0) {
+            overflow = 12;
+            words = 1;
+            input[0] = 0;
+            input[1] = 0;
+        } else if (carry == 1) {
+            overflow = 4;
+            words = 1;
+            input[1] = 0;
+        } else {
+            overflow = 8;
+            words = 2;
+        }
+        input[2] = 0;
+        encodeBlock(input, 0, 1, output, 0);
+        out.write(output, 0, words * CODEWORD_BYTES);
+        out.flush();
+
+        return overflow;
+    }
+
+    /**
+     * Encodes bytes of input channel to output channel in fixed size chunks. Every codeword is written as 3 big-endian bytes.
+     * @param in channel of unencoded bytes, read until its end.
+     * @param out channel receiving encoded codewords.
+     * @throws IOException when failed to read or write channel.
+     * @return number of additional bits to complete full vector.
+     */
+    public int encode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        return encode(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    /**
+     * Decodes codewords of input stream to output stream in fixed size chunks.
+     * @param in stream of codewords written as 3 big-endian bytes, read until its end.
+     * @param out stream receiving decoded bytes.
+     * @param overflow number of additional bits to complete full vector.
+     * @throws IOException when failed to read or write stream.
+     */
+    public void decode(InputStream in, OutputStream out, int overflow) throws IOException {
+        byte[] input = new byte[CHUNK_WORDS * CODEWORD_BYTES];
+        byte[] output = new byte[CHUNK_WORDS / 2 * 3 + 3];
+
+        // bits of decoded messages not yet written as a full byte.
+        int bits = 0;
+        int bitCount = 0;
+
+        // last message is held back until end of stream, as it carries the added bits.
+        int pending = -1;
+
+        int carry = 0;
+        int read;
+        while ((read = in.read(input, carry, input.length - carry)) != -1) {
+            int length = carry + read;
+            int words = length / CODEWORD_BYTES;
+            int o = 0;
+
+            for (int i = 0; i < words; i++) {
+                int p = i * CODEWORD_BYTES;
+                int codeword = ((input[p] & 0xFF) << 16) | ((input[p + 1] & 0xFF) << 8) | (input[p + 2] & 0xFF);
+
+                if (pending >= 0) {
+                    bits = (bits << 12) | pending;
+                    bitCount += 12;
+                    while (bitCount >= 8) {
+                        bitCount -= 8;
+                        output[o++] = (byte) (bits >>> bitCount);
+                    }
+                }
+                pending = decodeWord(codeword);
+            }
+            out.write(output, 0, o);
+
+            carry = length - words * CODEWORD_BYTES;
+            System.arraycopy(input, words * CODEWORD_BYTES, input, 0, carry);
+        }
+
+        // only original bits of the last message are written.
+        int o = 0;
+        int keep = 12 - overflow;
+        if (pending >= 0 && keep > 0) {
+            bits = (bits << keep) | (pending >>> overflow);
+            bitCount += keep;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                output[o++] = (byte) (bits >>> bitCount);
+            }
+        }
+        out.write(output, 0, o);
+        out.flush();
+    }
+
+    /**
+     * Decodes codewords of input channel to output channel in fixed size chunks.
+     * @param in channel of codewords written as 3 big-endian bytes, read until its end.
+     * @param out channel receiving decoded bytes.
+     * @param overflow number of additional bits to complete full vector.
+     * @throws IOException when failed to read or write channel.
+     */
+    public void decode(ReadableByteChannel in, WritableByteChannel out, int overflow) throws IOException {
+        decode(Channels.newInputStream(in), Channels.newOutputStream(out), overflow);
+    }
+
+    /**
+     * Encodes file to a file of codewords written as 3 big-endian bytes each, like encoded streams.
+     * Both files are memory mapped region by region and regions are encoded in parallel, copying only small chunks through heap.
+     * Written regions stay in page cache for the operating system to flush, so encoding is not stalled by the storage device.
+     * @param input path of unencoded file.
+     * @param output path of encoded file, created or replaced.
+     * @throws IOException when failed to read or write file.
+     * @return number of additional bits to complete full vector.
+     */
+    public int encodeMapped(Path input, Path output) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long length = in.size();
+            int overflow = countOverflow(length);
+            long words = (length * 8 + overflow) / 12;
+            setSize(out, words * CODEWORD_BYTES);
+
+            long groups = length / 3;
+            runRegions(groups, (first, count) -> {
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, first * 3, count * 3L);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, first * 2 * CODEWORD_BYTES, count * 2L * CODEWORD_BYTES);
+                byte[] chunk = new byte[CHUNK_WORDS / 2 * 3];
+                byte[] encoded = new byte[CHUNK_WORDS * CODEWORD_BYTES];
+                for (int done = 0; done < count; ) {
+                    int chunkGroups = Math.min(CHUNK_WORDS / 2, count - done);
+                    source.get(done * 3, chunk, 0, chunkGroups * 3);
+                    encodeBlock(chunk, 0, chunkGroups, encoded, 0);
+                    target.put(done * 2 * CODEWORD_BYTES, encoded, 0, chunkGroups * 2 * CODEWORD_BYTES);
+                    done += chunkGroups;
+                }
+            });
+
+            // last bytes that do not make a full group are completed with zeroes.
+            byte[] tail = new byte[3];
+            in.read(ByteBuffer.wrap(tail, 0, (int) (length - groups * 3)), groups * 3);
+            byte[] encoded = new byte[2 * CODEWORD_BYTES];
+            encodeBlock(tail, 0, 1, encoded, 0);
+            out.write(ByteBuffer.wrap(encoded, 0, (int) (words - groups * 2) * CODEWORD_BYTES), groups * 2 * CODEWORD_BYTES);
+
+            return overflow;
+        }
+    }
+
+    /**
+     * Decodes file of codewords written as 3 big-endian bytes each, memory mapping both files region by region.
+     * @param input path of encoded file.
+     * @param output path of decoded file, created or replaced.
+     * @param overflow number of additional bits to complete full vector.
+     * @throws IOException when failed to read or write file.
+     */
+    public void decodeMapped(Path input, Path output, int overflow) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long words = in.size() / CODEWORD_BYTES;
+            long length = Math.max(0, (words * 12 - overflow) / 8);
+            setSize(out, length);
+
+            // groups whose 3 decoded bytes are all original.
+            long groups = length / 3;
+            runRegions(groups, (first, count) -> {
+                MappedByteBuffer source = in.map(FileChannel.MapMode.READ_ONLY, first * 2 * CODEWORD_BYTES, count * 2L * CODEWORD_BYTES);
+                MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, first * 3, count * 3L);
+                byte[] chunk = new byte[CHUNK_WORDS * CODEWORD_BYTES];
+                byte[] decoded = new byte[CHUNK_WORDS / 2 * 3];
+                for (int done = 0; done < count; ) {
+                    int chunkGroups = Math.min(CHUNK_WORDS / 2, count - done);
+                    source.get(done * 2 * CODEWORD_BYTES, chunk, 0, chunkGroups * 2 * CODEWORD_BYTES);
+                    decodeBlock(chunk, 0, chunkGroups, decoded, 0);
+                    target.put(done * 3, decoded, 0, chunkGroups * 3);
+                    done += chunkGroups;
+                }
+            });
+
+            // last bytes come from codewords carrying added bits, missing codeword taken as zeroes.
+            int rest = (int) (length - groups * 3);
+            if (rest > 0) {
+                byte[] tail = new byte[2 * CODEWORD_BYTES];
+                in.read(ByteBuffer.wrap(tail, 0, (int) Math.min(2, words - groups * 2) * CODEWORD_BYTES), groups * 2 * CODEWORD_BYTES);
+                byte[] decoded = new byte[3];
+                decodeBlock(tail, 0, 1, decoded, 0);
+                out.write(ByteBuffer.wrap(decoded, 0, rest), groups * 3);
+            }
+        }
+    }
+
+    /**
+     * Decodes vector of codeword length
+     * @param vector encoded vector, shorter vectors being completed with zeroes.
      * @return decoded 12 length vector.
      */
     public int[] decode(int[] vector) {
-        int[] vector24 = new int[24];
-        System.arraycopy(vector, 0, vector24, 0, vector.length);
+        return unpack(decodeWord(pack(vector) << (codewordBits - vector.length)), 12);
+    }
+
+    /**
+     * Decodes one codeword of current codeword length.
+     * @param codeword 23 or 24 bit codeword.
+     * @return decoded 12 bit message.
+     */
+    public int decodeWord(int codeword) {
+        return codewordBits == 24 ? decode24(codeword) : decode23(codeword);
+    }
+
+    /**
+     * Decodes one 24 bit codeword of the extended code. Bits 22 to 0 hold the 23 bit codeword and bit 23 its even parity.
+     * Every decode mode looks error pattern up from syndrome table, which marks words with 4 errors as uncorrectable.
+     * First 12 bits of those are returned unchanged.
+     * @param codeword 24 bit codeword.
+     * @return decoded 12 bit message.
+     */
+    public int decode24(int codeword) {
+        codeword &= 0xFFFFFF;
+        int word24 = toWord24(codeword);
+
+        int result24 = word24;
+        if (fixErrors) {
+            int errorPattern = SYNDROME_TABLE[syndrome(word24)];
+            result24 = errorPattern == UNCORRECTABLE ? word24 : word24 ^ errorPattern;
+        }
+        int message = result24 >>> 12;
+
+        if (metrics != null && fixErrors) {
+            // uncorrectable words are at least 4 bits away from codeword of their unchanged message.
+            metrics.record(Integer.bitCount(EXTENDED_ENCODE_TABLE[message] ^ codeword));
+        }
+        return message;
+    }
+
+    /**
+     * Moves parity bit of a transmitted 24 bit codeword after the 23 bit codeword, the order parity check matrix expects.
+     * @param codeword 24 bit codeword with parity as bit 23.
+     * @return packed 24 bit word.
+     */
+    private static int toWord24(int codeword) {
+        return ((codeword & 0x7FFFFF) << 1) | ((codeword >>> 23) & 1);
+    }
 
-        // turns vector's length from 23 to 24 by adding a "1" if current sum of values is even or "0" if sum of values is odd.
-        vector24[vector24.length - 1] = (Arrays.stream(vector).sum() + 1) % 2;
+    /**
+     * Decodes one codeword packed into an integer. Bit 22 holds the first vector value, bit 0 the last.
+     * @param codeword 23 bit codeword.
+     * @return decoded 12 bit message.
+     */
+    public int decode23(int codeword) {
+        codeword &= 0x7FFFFF;
+        int message = decodeMessage(codeword);
 
-        // gets a list of bits with value "1" in place where error was found.
-        int[] errorPattern = findErrorPattern(vector24, this.controlMatrix);
+        if (metrics != null && fixErrors) {
+            // corrected weight is the distance between received word and codeword of decoded message.
+            metrics.record(Integer.bitCount(ENCODE_TABLE[message] ^ codeword));
+        }
+        return message;
+    }
 
-        // fixes errors by applying binary sum on encoded vector with error pattern.
-        int[] result24 = fixErrors ? sum(vector24, errorPattern) : vector24;
-        int[] result = new int[12];
+    /**
+     * Decodes masked 23 bit word using current decode mode.
+     * @param codeword packed 23 bit word.
+     * @return packed 12 bit message.
+     */
+    private int decodeMessage(int codeword) {
+        if (fixErrors && decodeMode == DecodeMode.DIRECT_TABLE) {
+            return getDirectTable().decode(codeword);
+        }
 
-        // take first 12 digits of decoded and fixed an array.
-        System.arraycopy(result24, 0, result, 0, result.length);
+        int word24 = extend(codeword);
 
-        return result;
+        // fixes errors by applying binary sum on encoded word with error pattern.
+        int result24 = fixErrors ? word24 ^ getErrorPattern(word24) : word24;
+
+        // take first 12 bits of decoded and fixed word.
+        return result24 >>> 12;
+    }
+
+    /**
+     * Returns direct decode table, building shared table on first call.
+     * @return table of messages indexed by received word.
+     */
+    private DirectDecodeTable getDirectTable() {
+        return directTable != null ? directTable : SharedDirectTable.TABLE;
+    }
+
+    /**
+     * Multiplies 24 bit word with parity check matrix.
+     * @param word24 packed word of 24 binary values.
+     * @return packed 12 bit syndrome, 0 for codewords.
+     */
+    public static int syndrome(int word24) {
+        return HIGH_SYNDROMES[(word24 >>> 12) & 0xFFF] ^ LOW_SYNDROMES[word24 & 0xFFF];
+    }
+
+    /**
+     * Finds error pattern of 24 bit word using current decode mode.
+     * @param word24 packed word of 24 binary values.
+     * @return packed 24 bit error pattern.
+     */
+    private int getErrorPattern(int word24) {
+        int syndrome = syndrome(word24);
+        if (decodeMode == DecodeMode.SYNDROME_TABLE) {
+            int errorPattern = SYNDROME_TABLE[syndrome];
+            // uncorrectable words are passed through unchanged.
+            return errorPattern == UNCORRECTABLE ? 0 : errorPattern;
+        }
+        return findErrorPattern(syndrome);
+    }
+
+    /**
+     * Packs vector of binary values into an integer, first value taking the highest bit.
+     * @param vector array of binary values, at most 32 length.
+     * @return packed word.
+     */
+    public static int pack(int[] vector) {
+        int word = 0;
+        for (int bit : vector) {
+            word = (word << 1) | (bit & 1);
+        }
+        return word;
+    }
+
+    /**
+     * Unpacks integer into vector of binary values, highest bit becoming the first value.
+     * @param word packed word.
+     * @param length number of bits to unpack.
+     * @return array of binary values.
+     */
+    public static int[] unpack(int word, int length) {
+        int[] vector = new int[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (word >>> (length - 1 - i)) & 1;
+        }
+        return vector;
     }
 
     /**
@@ -123,127 +596,475 @@ public class GolayEncoder {
     }
 
     /**
-     * Transforms array of unencoded bytes to an array of encoded vectors.
-     * @param bytes array of unencoded bytes.
-     * @return array of binary vectors.
+     * Transforms array of binary vectors to array of bytes.
+     * @param encodedVectors array of binary vectors.
+     * @param overflow number of additional bits to complete full vector.
+     * @return array of bytes.
      */
-    private int[][] getEncodedVectors(byte[] bytes) {
-        int[][] vectors = parseBytes(bytes);
-
-        int[][] encodedVectors = new int[vectors.length][vectors[0].length];
+    private byte[] getDecodedBytes(int[][] encodedVectors, int overflow) {
+        int[] codewords = new int[encodedVectors.length];
 
-        for (int i = 0; i < encodedVectors.length; i++) {
-            encodedVectors[i] = encode(vectors[i]);
+        for (int i = 0; i < codewords.length; i++) {
+            codewords[i] = pack(encodedVectors[i]);
         }
 
-        return encodedVectors;
+        return decodeWords(codewords, overflow);
     }
 
     /**
-     * Transforms array of binary vectors to array of bytes.
-     * @param encodedVectors array of binary vectors.
+     * Encodes array of bytes to packed codewords. Every 3 bytes make 2 messages of 12 bits.
+     * @param bytes array of unencoded bytes.
+     * @return encoded codewords with number of added bits.
+     */
+    public EncodedData encodeWords(byte[] bytes) {
+        int overflow = countOverflow(bytes.length);
+        int[] codewords = new int[countWords(bytes.length, overflow)];
+        encodeGroups(bytes, codewords, 0, groupCount(codewords.length));
+        return new EncodedData(codewords, overflow, codewordBits);
+    }
+
+    /**
+     * Encodes array of bytes to packed codewords on common fork-join pool.
+     * @param bytes array of unencoded bytes.
+     * @return encoded codewords with number of added bits, equal to encodeWords result.
+     */
+    public EncodedData encodeParallel(byte[] bytes) {
+        return encodeParallel(bytes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Encodes array of bytes to packed codewords, splitting work into chunks of whole 3 byte groups.
+     * @param bytes array of unencoded bytes.
+     * @param pool pool running encoding tasks.
+     * @return encoded codewords with number of added bits, equal to encodeWords result.
+     */
+    public EncodedData encodeParallel(byte[] bytes, ForkJoinPool pool) {
+        int overflow = countOverflow(bytes.length);
+        int[] codewords = new int[countWords(bytes.length, overflow)];
+        pool.invoke(new GroupTask((from, to) -> encodeGroups(bytes, codewords, from, to), 0, groupCount(codewords.length)));
+        return new EncodedData(codewords, overflow, codewordBits);
+    }
+
+    /**
+     * Decodes packed codewords to array of bytes. Every 2 messages of 12 bits make 3 bytes.
+     * @param codewords array of codewords.
      * @param overflow number of additional bits to complete full vector.
      * @return array of bytes.
      */
-    private byte[] getDecodedBytes(int[][] encodedVectors, int overflow) {
-        StringBuilder decodedStr = new StringBuilder();
+    public byte[] decodeWords(int[] codewords, int overflow) {
+        byte[] bytes = new byte[countBytes(codewords, overflow)];
+        decodeGroups(codewords, bytes, 0, groupCount(codewords.length));
+        return bytes;
+    }
 
-        // combine encoded bits into one string.
-        for (int[] encodedVector : encodedVectors) {
-            decodedStr.append(toString(decode(encodedVector)));
+    /**
+     * Decodes packed codewords to array of bytes, reporting whether every word was valid, corrected or uncorrectable.
+     * Words are checked against the extended [24,12,8] code. With 23 bit words the parity bit is rebuilt by receiver,
+     * so every word lies within 3 errors of a codeword and 4 bit errors are miscorrected rather than detected.
+     * Only 24 bit codewords, carrying a real parity bit, report uncorrectable words. Those are passed through unchanged.
+     * @param codewords array of codewords of current codeword length.
+     * @param overflow number of additional bits to complete full vector.
+     * @param blockWords number of codewords per block of the block bitmap, for example per retransmitted packet.
+     * @return decoded bytes with status of every word and block.
+     */
+    public DecodedData decodeChecked(int[] codewords, int overflow, int blockWords) {
+        if (blockWords <= 0) {
+            throw new IllegalArgumentException("Block must hold at least one codeword");
         }
+        BitSet corrected = new BitSet(codewords.length);
+        BitSet uncorrectable = new BitSet(codewords.length);
+        int[] messages = new int[codewords.length + 1];
+
+        for (int i = 0; i < codewords.length; i++) {
+            boolean extended = codewordBits == 24;
+            int word24 = extended ? toWord24(codewords[i] & 0xFFFFFF) : extend(codewords[i] & 0x7FFFFF);
+            int errorPattern = SYNDROME_TABLE[syndrome(word24)];
+
+            // rebuilt parity bit makes every 23 bit word odd weight, so its flip in error pattern is not a transmission error.
+            int transmitted = extended ? errorPattern : errorPattern >>> 1;
+            int errors = errorPattern == UNCORRECTABLE ? Integer.MAX_VALUE : Integer.bitCount(transmitted);
+            if (errorPattern == UNCORRECTABLE) {
+                uncorrectable.set(i);
+            } else if (errors != 0) {
+                corrected.set(i);
+            }
+            if (metrics != null && fixErrors) {
+                metrics.record(errors);
+            }
 
-        // get length of original values.
-        int decodedLength = decodedStr.length() - overflow;
-
-        byte[] bytes = new byte[decodedLength / 8];
+            boolean correct = fixErrors && errorPattern != UNCORRECTABLE;
+            messages[i] = (correct ? word24 ^ errorPattern : word24) >>> 12;
+        }
 
-        // loop through a string of binary values by assigning 8 bits (1 byte) to byte array.
-        for (int i = 0, b = 0; i < decodedLength; i += 8, b++) {
-            bytes[b] = (byte)Integer.parseInt(decodedStr.substring(i, i + 8), 2);
+        byte[] bytes = new byte[countBytes(codewords, overflow)];
+        for (int g = 0; g * 3 < bytes.length; g++) {
+            putGroup(bytes, g * 3, messages[g * 2], messages[g * 2 + 1]);
         }
+        return new DecodedData(bytes, corrected, uncorrectable, blockWords);
+    }
+
+    /**
+     * Turns codeword's length from 23 to 24 by adding a "1" if current sum of values is even or "0" if sum of values is odd.
+     * @param codeword packed 23 bit codeword.
+     * @return packed 24 bit word.
+     */
+    private static int extend(int codeword) {
+        return (codeword << 1) | ((Integer.bitCount(codeword) + 1) & 1);
+    }
 
+    /**
+     * Decodes packed codewords to array of bytes on common fork-join pool.
+     * @param codewords array of codewords.
+     * @param overflow number of additional bits to complete full vector.
+     * @return array of bytes, equal to decodeWords result.
+     */
+    public byte[] decodeParallel(int[] codewords, int overflow) {
+        return decodeParallel(codewords, overflow, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decodes packed codewords to array of bytes, splitting work into chunks of whole codeword pairs.
+     * @param codewords array of codewords.
+     * @param overflow number of additional bits to complete full vector.
+     * @param pool pool running decoding tasks.
+     * @return array of bytes, equal to decodeWords result.
+     */
+    public byte[] decodeParallel(int[] codewords, int overflow, ForkJoinPool pool) {
+        byte[] bytes = new byte[countBytes(codewords, overflow)];
+        pool.invoke(new GroupTask((from, to) -> decodeGroups(codewords, bytes, from, to), 0, groupCount(codewords.length)));
         return bytes;
     }
 
     /**
-     * Transforms array of bytes to an array of binary vectors.
-     * @param bytes array of bytes.
-     * @return array of binary vectors.
+     * Counts bits added to complete last vector of bytes.
+     * @param byteCount number of unencoded bytes.
+     * @return number of added bits.
      */
-    private int[][] parseBytes(byte[] bytes) {
+    static int countOverflow(long byteCount) {
         int vectorLength = 12;
-        StringBuilder bits = new StringBuilder();
 
-        // Converts byte array into a string of binary values by:
-        // 1. Integer.toBinaryString(b & 0xFF) turns signed bytes into unsigned bytes and converts them to binary values
-        // 2. "%8s" formats byte string to take 8 spots, by placing existing values to the right
-        // 3. replace(' ', '0') empty values on the left side of 8 bit string are replaced with zeroes.
-        for (byte b : bytes) {
-            bits.append(String.format("%8s", Integer.toBinaryString(b & 0xFF)).replace(' ', '0'));
-        }
+        // to fill missing vector length zeroes are added at the end.
+        return vectorLength - (int) (byteCount * 8 % vectorLength);
+    }
 
-        // to fill missing vector length add zeroes at the end.
-        int overflow = vectorLength - (bits.length() % vectorLength);
-        bits.append("0".repeat(overflow));
+    /**
+     * Counts messages needed for bytes.
+     * @param byteCount number of unencoded bytes.
+     * @param overflow number of added bits.
+     * @return number of 12 bit messages.
+     */
+    static int countWords(long byteCount, int overflow) {
+        return (int) ((byteCount * 8 + overflow) / 12);
+    }
 
-        this.overflow = overflow;
+    /**
+     * Decodes received codewords both corrected and not corrected in a single pass, so both outputs share one transmission.
+     * @param codewords array of received codewords.
+     * @param overflow number of additional bits to complete full vector.
+     * @param blockWords number of codewords per compared block, an even number so blocks hold whole groups.
+     * @return corrected and raw bytes with message bits changed by correction in every block.
+     */
+    public DecodeComparison compareWords(int[] codewords, int overflow, int blockWords) {
+        DecodeComparison comparison = new DecodeComparison(countBytes(codewords, overflow), codewords.length, blockWords);
+        compareWords(codewords, comparison, 0, groupCount(codewords.length));
+        return comparison;
+    }
 
-        int vectorCount = bits.length() / vectorLength;
-        int[][] vectors = new int[vectorCount][vectorLength];
+    /**
+     * Compares a range of 3 byte groups, so long inputs can be compared piece by piece, for example to report progress.
+     * @param codewords array of received codewords.
+     * @param comparison comparison receiving decoded groups, created for the same codewords.
+     * @param fromGroup first group, decoded from codewords 2 * fromGroup and 2 * fromGroup + 1.
+     * @param toGroup group after the last, at most (codewords.length + 1) / 2.
+     */
+    public void compareWords(int[] codewords, DecodeComparison comparison, int fromGroup, int toGroup) {
+        byte[] fixedBytes = comparison.getFixedBytes();
+        byte[] rawBytes = comparison.getRawBytes();
+
+        for (int g = fromGroup; g < toGroup; g++) {
+            int w = g * 2;
+            int b = g * 3;
+            if (b >= fixedBytes.length) {
+                break;
+            }
 
-        // turn bits into array of vectors.
-        for (int i = 0; i < vectorCount; i++) {
-            for (int j = 0; j < vectorLength; j++) {
-                vectors[i][j] = Integer.parseInt(String.valueOf(bits.charAt(i * vectorLength + j)));
+            // not corrected message is the first 12 bits of received codeword.
+            int rawFirst = (codewords[w] & 0x7FFFFF) >>> 11;
+            int first = decodeWord(codewords[w]);
+            int rawSecond = 0;
+            int second = 0;
+            if (w + 1 < codewords.length) {
+                rawSecond = (codewords[w + 1] & 0x7FFFFF) >>> 11;
+                second = decodeWord(codewords[w + 1]);
             }
+
+            putGroup(fixedBytes, b, first, second);
+            putGroup(rawBytes, b, rawFirst, rawSecond);
+            comparison.addCorrectedBits(w, Integer.bitCount(first ^ rawFirst) + Integer.bitCount(second ^ rawSecond));
         }
+    }
+
+    /**
+     * Counts original bytes carried by codewords.
+     * @param codewords array of codewords.
+     * @param overflow number of additional bits to complete full vector.
+     * @return number of decoded bytes.
+     */
+    public static int countBytes(int[] codewords, int overflow) {
+        // get length of original values.
+        int decodedLength = codewords.length * 12 - overflow;
+        return decodedLength / 8;
+    }
 
-        return vectors;
+    /**
+     * Counts 3 byte groups covered by codewords, each group taking 2 codewords.
+     * @param wordCount number of codewords.
+     * @return number of groups.
+     */
+    private static int groupCount(int wordCount) {
+        return (wordCount + 1) / 2;
     }
 
     /**
-     * Method to binary multiply vector with matrix
-     * @param vector array of binary values.
-     * @param matrix 2D array of binary values.
-     * @return multiplied vector and matrix.
+     * Encodes range of 3 byte groups. Every 3 bytes are joined into 24 bits and split into 2 messages, missing bytes taken as zeroes.
+     * @param bytes array of unencoded bytes.
+     * @param codewords array receiving codewords.
+     * @param fromGroup first group to encode.
+     * @param toGroup group after last group to encode.
      */
-    private int[] multiply(int[] vector, int[][] matrix) {
-        int[] result = new int[matrix[0].length];
+    private void encodeGroups(byte[] bytes, int[] codewords, int fromGroup, int toGroup) {
+        for (int g = fromGroup; g < toGroup; g++) {
+            int i = g * 3;
+            int group = (byteAt(bytes, i) << 16) | (byteAt(bytes, i + 1) << 8) | byteAt(bytes, i + 2);
+
+            int w = g * 2;
+            codewords[w] = encode12(group >>> 12);
+            if (w + 1 < codewords.length) {
+                codewords[w + 1] = encode12(group);
+            }
+        }
+    }
 
-        for (int i = 0; i < result.length; i++) {
-            int value = 0;
-            // multiply and sum every matrix column with vector values.
-            for (int j = 0; j < matrix.length; j++) {
-                value += matrix[j][i] * vector[j];
+    /**
+     * Decodes range of codeword pairs. Every 2 messages of 12 bits are joined and split into 3 bytes, stopping at original length.
+     * @param codewords array of codewords.
+     * @param bytes array receiving decoded bytes.
+     * @param fromGroup first pair to decode.
+     * @param toGroup pair after last pair to decode.
+     */
+    private void decodeGroups(int[] codewords, byte[] bytes, int fromGroup, int toGroup) {
+        for (int g = fromGroup; g < toGroup; g++) {
+            int w = g * 2;
+            int b = g * 3;
+            if (b >= bytes.length) {
+                break;
             }
 
-            // modulus for binary sum.
-            result[i] = value % 2;
+            int first = decodeWord(codewords[w]);
+            int second = w + 1 < codewords.length ? decodeWord(codewords[w + 1]) : 0;
+            putGroup(bytes, b, first, second);
         }
+    }
 
-        return result;
+    /**
+     * Writes pair of 12 bit messages as 3 bytes, dropping bytes past the end of array.
+     * @param bytes array of decoded bytes.
+     * @param index index of first byte of group.
+     * @param first first message.
+     * @param second second message.
+     */
+    private static void putGroup(byte[] bytes, int index, int first, int second) {
+        bytes[index] = (byte) (first >>> 4);
+        if (index + 1 < bytes.length) {
+            bytes[index + 1] = (byte) ((first << 4) | (second >>> 8));
+        }
+        if (index + 2 < bytes.length) {
+            bytes[index + 2] = (byte) second;
+        }
+    }
+
+    /**
+     * Reads unsigned byte value, treating indexes past the end as zeroes.
+     * @param bytes array of bytes.
+     * @param index index of byte.
+     * @return value from 0 to 255.
+     */
+    private static int byteAt(byte[] bytes, int index) {
+        return index < bytes.length ? bytes[index] & 0xFF : 0;
+    }
+
+    /**
+     * Splits groups into memory mapped regions and runs them in parallel on common fork-join pool.
+     * @param groups number of 3 byte groups.
+     * @param region operation over one region.
+     * @throws IOException when any region fails.
+     */
+    private static void runRegions(long groups, MappedRegion region) throws IOException {
+        long regions = (groups + MAPPED_GROUPS - 1) / MAPPED_GROUPS;
+        try {
+            IntStream.range(0, (int) regions).parallel().forEach(r -> {
+                long first = (long) r * MAPPED_GROUPS;
+                try {
+                    region.apply(first, (int) Math.min(MAPPED_GROUPS, groups - first));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Grows or shrinks file to given size, so regions can be mapped for writing.
+     * @param channel channel of file.
+     * @param size size in bytes.
+     * @throws IOException when failed to resize file.
+     */
+    private static void setSize(FileChannel channel, long size) throws IOException {
+        channel.truncate(size);
+        if (size > 0 && channel.size() < size) {
+            channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+        }
+    }
+
+    /**
+     * Encodes groups of 3 bytes into pairs of codewords written as 3 big-endian bytes each, the format of encoded streams.
+     * @param input array of unencoded bytes.
+     * @param inputOffset index of first byte.
+     * @param groups number of 3 byte groups to encode.
+     * @param output array receiving 6 bytes per group.
+     * @param outputOffset index of first encoded byte.
+     */
+    public void encodeBlock(byte[] input, int inputOffset, int groups, byte[] output, int outputOffset) {
+        for (int g = 0; g < groups; g++) {
+            int i = inputOffset + g * 3;
+            int group = ((input[i] & 0xFF) << 16) | ((input[i + 1] & 0xFF) << 8) | (input[i + 2] & 0xFF);
+            int first = encode12(group >>> 12);
+            int second = encode12(group);
+
+            int o = outputOffset + g * 2 * CODEWORD_BYTES;
+            output[o] = (byte) (first >>> 16);
+            output[o + 1] = (byte) (first >>> 8);
+            output[o + 2] = (byte) first;
+            output[o + 3] = (byte) (second >>> 16);
+            output[o + 4] = (byte) (second >>> 8);
+            output[o + 5] = (byte) second;
+        }
+    }
+
+    /**
+     * Decodes pairs of codewords written as 3 big-endian bytes each into groups of 3 bytes.
+     * @param input array of encoded bytes.
+     * @param inputOffset index of first encoded byte.
+     * @param groups number of codeword pairs to decode.
+     * @param output array receiving 3 bytes per pair.
+     * @param outputOffset index of first decoded byte.
+     */
+    public void decodeBlock(byte[] input, int inputOffset, int groups, byte[] output, int outputOffset) {
+        for (int g = 0; g < groups; g++) {
+            int i = inputOffset + g * 2 * CODEWORD_BYTES;
+            int first = decodeWord(((input[i] & 0xFF) << 16) | ((input[i + 1] & 0xFF) << 8) | (input[i + 2] & 0xFF));
+            int second = decodeWord(((input[i + 3] & 0xFF) << 16) | ((input[i + 4] & 0xFF) << 8) | (input[i + 5] & 0xFF));
+
+            int o = outputOffset + g * 3;
+            output[o] = (byte) (first >>> 4);
+            output[o + 1] = (byte) ((first << 4) | (second >>> 8));
+            output[o + 2] = (byte) second;
+        }
     }
 
     /**
-     * Method to binary sum vectors.
-     * @param vector1 array of binary values.
-     * @param vector2 array of binary values.
-     * @return summed vector.
+     * Method to binary multiply packed vector with packed matrix rows.
+     * @param word packed vector, highest of length bits selecting the first row.
+     * @param length number of bits in vector, equal to number of rows.
+     * @param rows matrix rows packed as words.
+     * @return multiplied vector and matrix as packed word.
      */
-    private int[] sum(int[] vector1, int[] vector2) {
-        int[] result = new int[vector1.length];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = (vector1[i] + vector2[i]) % 2;
+    private static int multiply(int word, int length, int[] rows) {
+        int result = 0;
+        // binary sum of every row selected by vector values, visiting only bits with value "1".
+        for (int bits = word & ((1 << length) - 1); bits != 0; bits &= bits - 1) {
+            result ^= rows[length - 1 - Integer.numberOfTrailingZeros(bits)];
         }
         return result;
     }
 
+    /**
+     * Creates table of codewords by multiplying every 12 bit message with generator matrix.
+     * @param generatorRows 12 x 23 matrix rows packed as words.
+     * @return 4096 length array of codewords indexed by message.
+     */
+    private static int[] generateEncodeTable(int[] generatorRows) {
+        int[] table = new int[1 << 12];
+        for (int message = 0; message < table.length; message++) {
+            table[message] = multiply(message, 12, generatorRows);
+        }
+        return table;
+    }
+
+    /**
+     * Creates table of extended codewords by adding even parity of every codeword as bit 23.
+     * @param encodeTable table of 23 bit codewords.
+     * @return 4096 length array of 24 bit codewords indexed by message.
+     */
+    private static int[] generateExtendedEncodeTable(int[] encodeTable) {
+        int[] table = new int[encodeTable.length];
+        for (int message = 0; message < table.length; message++) {
+            table[message] = encodeTable[message] | ((Integer.bitCount(encodeTable[message]) & 1) << 23);
+        }
+        return table;
+    }
+
+    /**
+     * Creates table of syndromes of every 12 bit half of a 24 bit word.
+     * @param firstRow first parity check matrix row multiplied with the half, 0 for first half and 12 for last.
+     * @return 4096 length array of syndromes indexed by half word.
+     */
+    private static int[] generateHalfSyndromeTable(int firstRow) {
+        int[] rows = new int[12];
+        System.arraycopy(CONTROL_ROWS, firstRow, rows, 0, rows.length);
+
+        int[] table = new int[1 << 12];
+        for (int half = 0; half < table.length; half++) {
+            table[half] = multiply(half, 12, rows);
+        }
+        return table;
+    }
+
+    /**
+     * Creates table of error patterns by running syndrome decoding algorithm for every 12 bit syndrome.
+     * @return 4096 length array of error patterns indexed by syndrome, UNCORRECTABLE where algorithm fails.
+     */
+    private static int[] generateSyndromeTable() {
+        int[] table = new int[1 << 12];
+        for (int syndrome = 0; syndrome < table.length; syndrome++) {
+            int errorPattern = findErrorPattern(syndrome);
+            // a valid error pattern has at most 3 errors and produces the same syndrome it was found for.
+            boolean valid = Integer.bitCount(errorPattern) <= 3 && multiply(errorPattern, 24, CONTROL_ROWS) == syndrome;
+            table[syndrome] = valid ? errorPattern : UNCORRECTABLE;
+        }
+        return table;
+    }
+
+    /**
+     * Packs every row of a binary matrix into a word.
+     * @param matrix 2D array of binary values.
+     * @return array of packed rows.
+     */
+    private static int[] packRows(int[][] matrix) {
+        int[] rows = new int[matrix.length];
+        for (int i = 0; i < matrix.length; i++) {
+            rows[i] = pack(matrix[i]);
+        }
+        return rows;
+    }
+
     /**
      * Creates 12 x 23 matrix for encoding. Left side (first 12 columns) is an Identity matrix. Right side is a 12 x 11 matrix where row i+1 is row i shifted left. Last row contains only values of "1".
      * @return 12 x 23 matrix as 2D integer array.
      */
-    private int[][] generateGeneratorMatrix() {
+    private static int[][] generateGeneratorMatrix() {
         int[] bFirstLine = {1,1,0,1,1,1,0,0,0,1,0};
         int[] iFirstLine = {1,0,0,0,0,0,0,0,0,0,0,0};
 
@@ -274,7 +1095,7 @@ public class GolayEncoder {
      * Creates 24 x 12 matrix for encoding. Top side (first 12 rows) is an Identity matrix. Bottom side is a 12 x 12 matrix where row i+1 is row i shifted left. Last row and last column contain only values of "1" except last index of the matrix.
      * @return  24 x 12 matrix as 2D integer array.
      */
-    private int[][] generateControlMatrix() {
+    private static int[][] generateControlMatrix() {
         int[] iFirstLine = {1,0,0,0,0,0,0,0,0,0,0,0};
         int[] bFirstLine = {1,1,0,1,1,1,0,0,0,1,0,1};
 
@@ -303,58 +1124,89 @@ public class GolayEncoder {
     }
 
     /**
-     * Algorithm to find error pattern by manipulating parity check matrix with encoded 24 length vector.
-     * @param vector array of 24 binary values.
-     * @param controlMatrix 24 x 12 matrix for parity check.
-     * @return vector with values "1" at indexes of error.
+     * Algorithm to find error pattern by manipulating parity check matrix with syndrome of encoded 24 bit word.
+     * @param syndrome (s) - packed 12 bit parity check violations.
+     * @return packed 24 bit word with values "1" at indexes of error.
      */
-    private int[] findErrorPattern(int[] vector, int[][] controlMatrix) {
-        // syndrome (s) - array of parity check violations.
-        int[] syndrome = multiply(vector, controlMatrix);
-
-        // errorPattern (u)
-        int[] errorPattern = new int[syndrome.length * 2];
+    private static int findErrorPattern(int syndrome) {
+        int[] rows = CONTROL_ROWS;
 
         // If wt(s) <= 3 then u = [s,0]
-        if (Arrays.stream(syndrome).sum() <= 3) {
-            System.arraycopy(syndrome, 0, errorPattern, 0, syndrome.length);
-            return errorPattern;
+        if (Integer.bitCount(syndrome) <= 3) {
+            return syndrome << 12;
         }
 
         // If wt(s + bi) <= 2 for some row bi of B then u = [s + bi, ei]
-        for (int i = 12; i < controlMatrix.length; i++) {
-            for (int j = 0; j < controlMatrix[i].length; j++) {
-                errorPattern[j] = (controlMatrix[i][j] + syndrome[j]) % 2;
-            }
-            if (Arrays.stream(errorPattern).sum() <= 2) {
-                errorPattern[i] = 1;
-                return errorPattern;
+        for (int i = 12; i < rows.length; i++) {
+            int sum = syndrome ^ rows[i];
+            if (Integer.bitCount(sum) <= 2) {
+                return (sum << 12) | (1 << (23 - i));
             }
         }
 
-        errorPattern = new int[syndrome.length * 2];
-
-        int[][] matrixB = new int[12][12];
-        System.arraycopy(controlMatrix, 12, matrixB, 0, matrixB.length);
-        int[] syndromeB = multiply(syndrome, matrixB);
+        // B is the bottom 12 rows of parity check matrix.
+        int syndromeB = 0;
+        for (int i = 0; i < 12; i++) {
+            if (((syndrome >>> (11 - i)) & 1) != 0) {
+                syndromeB ^= rows[12 + i];
+            }
+        }
 
         // If wt(sB) <= 3 then u = [0, sB]
-        if (Arrays.stream(syndromeB).sum() <= 3) {
-            System.arraycopy(syndromeB, 0, errorPattern, errorPattern.length / 2, syndrome.length);
-            return errorPattern;
+        if (Integer.bitCount(syndromeB) <= 3) {
+            return syndromeB;
         }
 
         // If wt(sB + bi) <= 2 for some row bi of B then u = [ei, sB + bi]
-        for (int i = 12; i < controlMatrix.length; i++) {
-            for (int j = 0; j < controlMatrix[i].length; j++) {
-                errorPattern[j + 12] = (controlMatrix[i][j] + syndromeB[j]) % 2;
+        int sum = 0;
+        for (int i = 12; i < rows.length; i++) {
+            sum = syndromeB ^ rows[i];
+            if (Integer.bitCount(sum) <= 2) {
+                return (1 << (35 - i)) | sum;
             }
-            if (Arrays.stream(errorPattern).sum() <= 2) {
-                errorPattern[i - 12] = 1;
-                return errorPattern;
+        }
+
+        return sum;
+    }
+
+    // Operation over a range of 3 byte groups.
+    private interface GroupAction {
+        void apply(int fromGroup, int toGroup);
+    }
+
+    // Fork-join task halving range of groups until it fits one chunk.
+    private static class GroupTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // tasks only run within one decode call and are never serialized.
+        private final transient GroupAction action;
+        private final int fromGroup;
+        private final int toGroup;
+
+        GroupTask(GroupAction action, int fromGroup, int toGroup) {
+            this.action = action;
+            this.fromGroup = fromGroup;
+            this.toGroup = toGroup;
+        }
+
+        @Override
+        protected void compute() {
+            if (toGroup - fromGroup <= PARALLEL_GROUPS) {
+                action.apply(fromGroup, toGroup);
+                return;
             }
+            int middle = (fromGroup + toGroup) >>> 1;
+            invokeAll(new GroupTask(action, fromGroup, middle), new GroupTask(action, middle, toGroup));
         }
+    }
+
+    // Direct decode table shared by encoders without own table, built when first used.
+    private static class SharedDirectTable {
+        private static final DirectDecodeTable TABLE = DirectDecodeTable.build();
+    }
 
-        return errorPattern;
+    // Operation over a memory mapped region of groups.
+    private interface MappedRegion {
+        void apply(long firstGroup, int groupCount) throws IOException;
     }
 }
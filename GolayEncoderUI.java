@@ -2,18 +2,48 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileFilter;
+import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class GolayEncoderUI extends JFrame {
+    // Number of 3 byte groups decoded between progress updates and cancellation checks.
+    private static final int PROGRESS_GROUPS = 1 << 14;
+
+    // Number of preview updates per decoded image, each parsing the whole partly decoded file.
+    private static final int PREVIEW_STEPS = 10;
+
+    // Header size passed to the channel, which skips HEADER_SIZE * 3 / 2 codewords, so first 36 bytes of image header stay readable.
+    private static final int HEADER_SIZE = 16;
+
+    // Size of preview image.
+    private static final int PREVIEW_SIZE = 240;
+
+    // Number of codewords per block whose corrections are reported, one progress step.
+    private static final int BLOCK_WORDS = 2 * PROGRESS_GROUPS;
+
     private JTextArea resultArea;
     private JLabel imagePathLabel;
+    private JLabel previewLabel;
+    private JProgressBar imageProgress;
+    private JButton processImageBtn;
+    private JButton cancelImageBtn;
+    private transient ImageWorker imageWorker;
     private File selectedImageFile;
     private String encodedVector;
     private String receivedVector;
 
+    // Encoder is immutable and shared by every operation, not corrected output being decoded alongside corrected one.
+    private final transient GolayEncoder encoder = new GolayEncoder();
+
     public GolayEncoderUI() {
         setTitle("Golay Encoder");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -38,6 +68,9 @@ public class GolayEncoderUI extends JFrame {
         // Result Panel
         JPanel resultPanel = createResultPanel();
 
+        // Preview Panel
+        JPanel previewPanel = createPreviewPanel();
+
         // Add panels to main panel
         JPanel inputPanelRow1 = new JPanel(new GridLayout(1, 2, 10, 10));
         inputPanelRow1.add(vectorPanel);
@@ -50,8 +83,12 @@ public class GolayEncoderUI extends JFrame {
         inputPanelRows.add(inputPanelRow1);
         inputPanelRows.add(inputPanelRow2);
 
+        JPanel outputPanel = new JPanel(new BorderLayout(10, 10));
+        outputPanel.add(resultPanel, BorderLayout.CENTER);
+        outputPanel.add(previewPanel, BorderLayout.EAST);
+
         mainPanel.add(inputPanelRows, BorderLayout.NORTH);
-        mainPanel.add(resultPanel, BorderLayout.CENTER);
+        mainPanel.add(outputPanel, BorderLayout.CENTER);
 
         add(mainPanel);
     }
@@ -146,10 +183,22 @@ public class GolayEncoderUI extends JFrame {
 
         panel.add(inputPanel, BorderLayout.CENTER);
 
-        // Process button
-        JButton processImageBtn = new JButton("Process");
+        // Process and cancel buttons
+        JPanel buttonPanel = new JPanel(new GridLayout(2, 1, 5, 5));
+        processImageBtn = new JButton("Process");
         processImageBtn.addActionListener(e -> processImage(outputPath, outputCorruptedPath, errorField));
-        panel.add(processImageBtn, BorderLayout.EAST);
+        buttonPanel.add(processImageBtn);
+
+        cancelImageBtn = new JButton("Cancel");
+        cancelImageBtn.setEnabled(false);
+        cancelImageBtn.addActionListener(e -> imageWorker.cancel(false));
+        buttonPanel.add(cancelImageBtn);
+        panel.add(buttonPanel, BorderLayout.EAST);
+
+        // Progress of transmission and decoding
+        imageProgress = new JProgressBar(0, 100);
+        imageProgress.setStringPainted(true);
+        panel.add(imageProgress, BorderLayout.SOUTH);
 
         return panel;
     }
@@ -186,6 +235,17 @@ public class GolayEncoderUI extends JFrame {
         return panel;
     }
 
+    private JPanel createPreviewPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(new TitledBorder("Preview"));
+
+        previewLabel = new JLabel("", SwingConstants.CENTER);
+        previewLabel.setPreferredSize(new Dimension(PREVIEW_SIZE, PREVIEW_SIZE));
+        panel.add(previewLabel, BorderLayout.CENTER);
+
+        return panel;
+    }
+
     private void selectImage(ActionEvent e) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileFilter() {
@@ -283,21 +343,31 @@ public class GolayEncoderUI extends JFrame {
                 return;
             }
 
-            resultArea.append("=== Processing Text ===\n");
-            resultArea.append("Input: " + text + "\n");
-            resultArea.append("Error Rate: " + errorRate + "\n\n");
-
-            String decodedText = sendText(errorRate, textInput, true);
-            String decodedCorruptedText = sendText(errorRate, textInput, false);
-
-            resultArea.append("Output: " + decodedText + "\n");
-            resultArea.append("Output (not fixed): " + decodedCorruptedText + "\n");
-            resultArea.append("=".repeat(50) + "\n\n");
+            // text is sent off the event dispatch thread and results are shown together when both are decoded.
+            new SwingWorker<String[], Void>() {
+                @Override
+                protected String[] doInBackground() {
+                    return sendText(errorRate, text);
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        String[] decodedTexts = get();
+                        resultArea.append("=== Processing Text ===\n");
+                        resultArea.append("Input: " + text + "\n");
+                        resultArea.append("Error Rate: " + errorRate + "\n\n");
+                        resultArea.append("Output: " + decodedTexts[0] + "\n");
+                        resultArea.append("Output (not fixed): " + decodedTexts[1] + "\n");
+                        resultArea.append("=".repeat(50) + "\n\n");
+                    } catch (InterruptedException | ExecutionException ex) {
+                        showError("Error processing text: " + getCause(ex).getMessage());
+                    }
+                }
+            }.execute();
 
         } catch (NumberFormatException ex) {
             showError("Invalid error rate. Please enter a decimal number.");
-        } catch (Exception ex) {
-            showError("Error processing text: " + ex.getMessage());
         }
     }
 
@@ -318,32 +388,30 @@ public class GolayEncoderUI extends JFrame {
             resultArea.append("Input: " + selectedImageFile.getPath() + "\n");
             resultArea.append("Error Rate: " + errorRate + "\n");
 
-            // Process with Golay encoder
-            String resultPath = sendImage(errorRate, outputPath, true);
-            String resultCorruptedPath = sendImage(errorRate, outputCorruptedPath, false);
-
-            resultArea.append("Output: " + resultPath + "\n");
-            resultArea.append("Output (not fixed): " + resultCorruptedPath + "\n");
-            resultArea.append("=".repeat(50) + "\n\n");
+            // Process with Golay encoder in background, buttons switching until worker is done.
+            imageWorker = new ImageWorker(selectedImageFile, errorRate, outputPath.getText(), outputCorruptedPath.getText());
+            imageWorker.addPropertyChangeListener(event -> {
+                if ("progress".equals(event.getPropertyName())) {
+                    imageProgress.setValue((Integer) event.getNewValue());
+                }
+            });
+            processImageBtn.setEnabled(false);
+            cancelImageBtn.setEnabled(true);
+            imageProgress.setValue(0);
+            previewLabel.setIcon(null);
+            imageWorker.execute();
 
         } catch (NumberFormatException ex) {
             showError("Invalid numeric input. Please check error rate.");
-        } catch (IOException ex) {
-            showError("Error processing image: " + ex.getMessage());
-        } catch (Exception ex) {
-            showError("Error: " + ex.getMessage());
         }
     }
 
     private String getEncodedVector(int[] vector) {
-        GolayEncoder encoder = new GolayEncoder();
-
         int[] encodedVector = encoder.encode(vector);
         return encoder.toString(encodedVector);
     }
 
     private String sendAndReceiveVector(int[] encodedVector, double errorRate) {
-        GolayEncoder encoder = new GolayEncoder();
         Channel channel = new Channel(errorRate);
 
         int[][] encodedVectors = {encodedVector};
@@ -353,39 +421,138 @@ public class GolayEncoderUI extends JFrame {
     }
 
     private String getDecodedVector(int[] receivedVector) {
-        GolayEncoder encoder = new GolayEncoder();
         return encoder.toString(encoder.decode(receivedVector));
     }
 
-    private String sendText(double errorRate, JTextField textInput, boolean fixErrors) {
-        GolayEncoder encoder = new GolayEncoder();
-        encoder.setFixErrors(fixErrors);
+    /**
+     * Sends text once and decodes it corrected and not corrected.
+     * @return corrected and not corrected text.
+     */
+    private String[] sendText(double errorRate, String text) {
         Channel channel = new Channel(errorRate);
 
-        int[][] encodedText = encoder.encode(textInput.getText());
-        channel.send(encodedText, encoder.getOverflow());
+        EncodedData encodedText = encoder.encode(text);
+        channel.send(encodedText, 0);
 
-        int[][] receivedData = channel.receive();
+        int[] receivedData = channel.receiveCodewords().array();
         int safeData = channel.receiveSafeData();
 
-        return encoder.decode(receivedData, safeData);
+        DecodeComparison comparison = encoder.compareWords(receivedData, safeData, BLOCK_WORDS);
+        return new String[] {new String(comparison.getFixedBytes()), new String(comparison.getRawBytes())};
     }
 
-    private String sendImage(double errorRate, JTextField outputPathLabel, boolean fixErrors) throws IOException {
-        GolayEncoder encoder = new GolayEncoder();
-        encoder.setFixErrors(fixErrors);
-        Channel channel = new Channel(errorRate);
+    /**
+     * Scales image to fit preview, keeping its proportions.
+     */
+    private Icon toPreviewIcon(BufferedImage image) {
+        double scale = Math.min(1.0, (double) PREVIEW_SIZE / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) (image.getWidth() * scale));
+        int height = Math.max(1, (int) (image.getHeight() * scale));
+        return new ImageIcon(image.getScaledInstance(width, height, Image.SCALE_FAST));
+    }
 
-        int[][] encodedImg = encoder.encodeFile(selectedImageFile.getAbsolutePath());
-        int headerSize = 16;
-        channel.send(encodedImg, encoder.getOverflow(), headerSize);
+    private static Throwable getCause(Exception ex) {
+        return ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
 
-        int[][] receivedData = channel.receive();
-        int safeData = channel.receiveSafeData();
+    /**
+     * Sends image through channel once and decodes it corrected and not corrected in one pass, piece by piece,
+     * so progress is reported, cancellation is checked and decoded rows of corrected image are previewed as they finish.
+     */
+    private class ImageWorker extends SwingWorker<DecodeComparison, BufferedImage> {
+        private final File input;
+        private final double errorRate;
+        private final String outputPath;
+        private final String outputCorruptedPath;
+
+        ImageWorker(File input, double errorRate, String outputPath, String outputCorruptedPath) {
+            this.input = input;
+            this.errorRate = errorRate;
+            this.outputPath = outputPath;
+            this.outputCorruptedPath = outputCorruptedPath;
+        }
+
+        /**
+         * Sends image and writes both decoded files.
+         * @return comparison of outputs, null if cancelled before files were written.
+         */
+        @Override
+        protected DecodeComparison doInBackground() throws IOException {
+            byte[] bytes = Files.readAllBytes(input.toPath());
+            Channel channel = new Channel(errorRate);
+
+            EncodedData encodedImg = encoder.encodeWords(bytes);
+            channel.send(encodedImg, HEADER_SIZE);
+
+            int[] receivedData = encodedImg.getCodewords();
+            DecodeComparison comparison = new DecodeComparison(
+                    GolayEncoder.countBytes(receivedData, channel.receiveSafeData()), receivedData.length, BLOCK_WORDS);
+            int groups = (receivedData.length + 1) / 2;
+            int nextPreview = 0;
+
+            for (int from = 0; from < groups; from += PROGRESS_GROUPS) {
+                if (isCancelled()) {
+                    return null;
+                }
+                int to = Math.min(groups, from + PROGRESS_GROUPS);
+                encoder.compareWords(receivedData, comparison, from, to);
+                setProgress((int) (100L * to / groups));
+
+                // preview parses whole file, where not yet decoded rows are still zeroes.
+                if (to == groups || (long) to * PREVIEW_STEPS >= (long) groups * nextPreview) {
+                    nextPreview++;
+                    publishPreview(comparison.getFixedBytes());
+                }
+            }
 
-        String outputPath = outputPathLabel.getText();
-        encoder.decodeFile(receivedData, outputPath, safeData);
-        return outputPath;
+            Files.write(Path.of(outputPath), comparison.getFixedBytes());
+            Files.write(Path.of(outputCorruptedPath), comparison.getRawBytes());
+            return comparison;
+        }
+
+        private void publishPreview(byte[] decoded) {
+            try {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(decoded));
+                if (image != null) {
+                    publish(image);
+                }
+            } catch (IOException | RuntimeException e) {
+                // partly decoded file may not parse yet, next preview is tried after more rows are decoded.
+            }
+        }
+
+        @Override
+        protected void process(List<BufferedImage> images) {
+            previewLabel.setIcon(toPreviewIcon(images.get(images.size() - 1)));
+        }
+
+        @Override
+        protected void done() {
+            processImageBtn.setEnabled(true);
+            cancelImageBtn.setEnabled(false);
+
+            if (isCancelled()) {
+                resultArea.append("Cancelled\n");
+                resultArea.append("=".repeat(50) + "\n\n");
+                return;
+            }
+            try {
+                DecodeComparison comparison = get();
+                resultArea.append("Output: " + outputPath + "\n");
+                resultArea.append("Output (not fixed): " + outputCorruptedPath + "\n");
+                resultArea.append("Corrected bits: " + comparison.getTotalCorrectedBits() + " in "
+                        + comparison.getDifferingBlocks().cardinality() + " of " + comparison.getBlockCount() + " blocks\n");
+
+                StringBuilder blocks = new StringBuilder();
+                for (int i = 0; i < comparison.getBlockCount(); i++) {
+                    blocks.append(i == 0 ? "" : " ").append(comparison.getCorrectedBits(i));
+                }
+                resultArea.append("Corrected bits per block: " + blocks + "\n");
+                resultArea.append("=".repeat(50) + "\n\n");
+            } catch (InterruptedException | ExecutionException ex) {
+                showError("Error processing image: " + getCause(ex).getMessage());
+            }
+        }
     }
 
     private void showError(String message) {
@@ -413,7 +580,13 @@ public class GolayEncoderUI extends JFrame {
         return vector;
     }
 
-    public static void main(String[] args) {
+    // Jar entry point, running headless batch tool when arguments are given and the window otherwise.
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0) {
+            GolayCli.main(args);
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
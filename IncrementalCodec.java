@@ -0,0 +1,20 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Stateful codec fed with fragments of a stream, for example reads of a socket.
+ * Implementations carry partial groups and words between calls and are not thread-safe.
+ */
+public interface IncrementalCodec {
+    /**
+     * Processes next fragment of the stream, consuming all of its remaining bytes.
+     * @param input fragment of any length.
+     * @return bytes completed by this fragment, possibly empty.
+     */
+    ByteBuffer update(ByteBuffer input);
+
+    /**
+     * Ends the stream and emits bytes held back for its end.
+     * @return last bytes of the stream, possibly empty.
+     */
+    ByteBuffer finish();
+}
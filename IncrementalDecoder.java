@@ -0,0 +1,90 @@
+import java.nio.ByteBuffer;
+
+public class IncrementalDecoder implements IncrementalCodec {
+    private final GolayEncoder encoder;
+
+    // Number of additional bits in the last message, known from the encoder before the stream starts.
+    private final int overflow;
+
+    // Bytes of previous fragments that did not make a full codeword.
+    private final byte[] carry = new byte[GolayEncoder.CODEWORD_BYTES];
+    private int carryLength;
+
+    // Bits of decoded messages not yet emitted as a full byte.
+    private int bits;
+    private int bitCount;
+
+    // Last message is held back until end of stream, as it carries the added bits.
+    private int pending = -1;
+
+    private boolean finished;
+
+    /**
+     * Creates decoder of codewords written as 3 big-endian bytes each.
+     * @param encoder decoder of codewords, its fixErrors flag deciding whether errors are corrected.
+     * @param overflow number of additional bits to complete full vector.
+     */
+    public IncrementalDecoder(GolayEncoder encoder, int overflow) {
+        this.encoder = encoder;
+        this.overflow = overflow;
+    }
+
+    @Override
+    public ByteBuffer update(ByteBuffer input) {
+        if (finished) {
+            throw new IllegalStateException("Decoder is finished");
+        }
+        int words = (carryLength + input.remaining()) / GolayEncoder.CODEWORD_BYTES;
+        byte[] decoded = new byte[(words * 12 + bitCount) / 8];
+        int o = 0;
+
+        for (int i = 0; i < words; i++) {
+            int codeword = 0;
+            for (int b = 0; b < GolayEncoder.CODEWORD_BYTES; b++) {
+                int value = b < carryLength ? carry[b] : input.get();
+                codeword = (codeword << 8) | (value & 0xFF);
+            }
+            carryLength = 0;
+
+            if (pending >= 0) {
+                bits = (bits << 12) | pending;
+                bitCount += 12;
+                while (bitCount >= 8) {
+                    bitCount -= 8;
+                    decoded[o++] = (byte) (bits >>> bitCount);
+                }
+            }
+            pending = encoder.decodeWord(codeword);
+        }
+
+        while (input.hasRemaining()) {
+            carry[carryLength++] = input.get();
+        }
+        return ByteBuffer.wrap(decoded, 0, o);
+    }
+
+    /**
+     * Writes only original bits of the last message. Bytes of an incomplete last codeword are ignored.
+     * @return last decoded bytes.
+     */
+    @Override
+    public ByteBuffer finish() {
+        if (finished) {
+            throw new IllegalStateException("Decoder is finished");
+        }
+        finished = true;
+
+        byte[] decoded = new byte[2];
+        int o = 0;
+        int keep = 12 - overflow;
+        if (pending >= 0 && keep > 0) {
+            bits = (bits << keep) | (pending >>> overflow);
+            bitCount += keep;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                decoded[o++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return ByteBuffer.wrap(decoded, 0, o);
+    }
+}
@@ -0,0 +1,77 @@
+import java.nio.ByteBuffer;
+
+public class IncrementalEncoder implements IncrementalCodec {
+    private final GolayEncoder encoder;
+
+    // Bytes of previous fragments that did not make a full 3 byte group.
+    private final byte[] carry = new byte[3];
+    private int carryLength;
+
+    private long length;
+    private int overflow = -1;
+
+    /**
+     * Creates encoder whose output is codewords written as 3 big-endian bytes each, like encoded streams.
+     * @param encoder encoder of 3 byte groups.
+     */
+    public IncrementalEncoder(GolayEncoder encoder) {
+        this.encoder = encoder;
+    }
+
+    @Override
+    public ByteBuffer update(ByteBuffer input) {
+        if (overflow >= 0) {
+            throw new IllegalStateException("Encoder is finished");
+        }
+        int total = carryLength + input.remaining();
+        length += input.remaining();
+
+        byte[] data = new byte[total];
+        System.arraycopy(carry, 0, data, 0, carryLength);
+        input.get(data, carryLength, input.remaining());
+
+        int groups = total / 3;
+        byte[] encoded = new byte[groups * 2 * GolayEncoder.CODEWORD_BYTES];
+        encoder.encodeBlock(data, 0, groups, encoded, 0);
+
+        carryLength = total - groups * 3;
+        System.arraycopy(data, groups * 3, carry, 0, carryLength);
+        return ByteBuffer.wrap(encoded);
+    }
+
+    /**
+     * Completes last bytes with zeroes to full vectors, the same way encoded streams end.
+     * @return last codewords.
+     */
+    @Override
+    public ByteBuffer finish() {
+        if (overflow >= 0) {
+            throw new IllegalStateException("Encoder is finished");
+        }
+        overflow = GolayEncoder.countOverflow(length);
+        int words = GolayEncoder.countWords(length, overflow) - (int) (length / 3 * 2);
+
+        for (int i = carryLength; i < carry.length; i++) {
+            carry[i] = 0;
+        }
+        byte[] encoded = new byte[2 * GolayEncoder.CODEWORD_BYTES];
+        encoder.encodeBlock(carry, 0, 1, encoded, 0);
+        return ByteBuffer.wrap(encoded, 0, words * GolayEncoder.CODEWORD_BYTES);
+    }
+
+    /**
+     * Gets number of bits added to complete full vector, needed to decode the stream.
+     * @throws IllegalStateException when encoder is not finished.
+     * @return number of added bits.
+     */
+    public int getOverflow() {
+        if (overflow < 0) {
+            throw new IllegalStateException("Encoder is not finished");
+        }
+        return overflow;
+    }
+
+    public long getLength() {
+        return length;
+    }
+}
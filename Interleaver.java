@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+public class Interleaver {
+    // Number of codewords in one block, which is also the number of bits a burst must exceed to hit a codeword twice.
+    private final int depth;
+
+    // Number of bits in a packed codeword.
+    private final int codewordBits;
+
+    public Interleaver(int depth, int codewordBits) {
+        this.depth = depth;
+        this.codewordBits = codewordBits;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getCodewordBits() {
+        return codewordBits;
+    }
+
+    /**
+     * Reorders bits of a block so that bit i of every codeword is sent before bit i + 1 of any codeword.
+     * Burst of length L then hits any codeword at most ceil(L / count) times.
+     * @param block array of codewords.
+     * @param count number of codewords in block, at most depth.
+     * @param out array receiving count interleaved words of the same bit length.
+     */
+    public void interleave(int[] block, int count, int[] out) {
+        shuffle(block, count, out, true);
+    }
+
+    /**
+     * Restores codewords of a block reordered by interleave.
+     * @param block array of interleaved words.
+     * @param count number of words in block, at most depth.
+     * @param out array receiving count codewords.
+     */
+    public void deinterleave(int[] block, int count, int[] out) {
+        shuffle(block, count, out, false);
+    }
+
+    private void shuffle(int[] block, int count, int[] out, boolean interleave) {
+        Arrays.fill(out, 0, count, 0);
+        for (int word = 0; word < count; word++) {
+            for (int bit = 0; bit < codewordBits; bit++) {
+                // position of codeword's bit in transmission order.
+                int sent = bit * count + word;
+                int sentWord = sent / codewordBits;
+                int sentBit = sent % codewordBits;
+
+                int shift = codewordBits - 1 - bit;
+                int sentShift = codewordBits - 1 - sentBit;
+                if (interleave) {
+                    out[sentWord] |= ((block[word] >>> shift) & 1) << sentShift;
+                } else {
+                    out[word] |= ((block[sentWord] >>> sentShift) & 1) << shift;
+                }
+            }
+        }
+    }
+}
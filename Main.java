@@ -1,40 +1,41 @@
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 public class Main {
-    public static void main(String[] args) {
-        int runs = 10;
+    public static void main(String[] args) throws IOException {
+        GolayEncoder encoder = new GolayEncoder(GolayEncoder.DecodeMode.DIRECT_TABLE);
+
+        // first decoded word builds the direct decode table, so it is timed apart from the runs.
+        long buildStart = System.currentTimeMillis();
+        encoder.decode23(0);
+        long buildEnd = System.currentTimeMillis();
+        System.out.println("table build " + (buildEnd - buildStart));
+
+        double[] errorRates = new double[10];
+        for (int i = 0; i < errorRates.length; i++) {
+            errorRates[i] = 0.01 * (i + 1);
+        }
 
-        for (double i = 0; i < 1; i += 0.1) {
-            long totalTime = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Simulation simulation = new Simulation(encoder, threads, 1000, 100_000_000L, 1);
+        List<Simulation.Result> results = simulation.run(errorRates);
 
-            for (int j = 0; j < runs; j++) {
-                totalTime += sendImage(i);
+        // results go to CSV file given as first argument and JSON file given as second, otherwise CSV is printed.
+        if (args.length > 0) {
+            try (Writer writer = Files.newBufferedWriter(Path.of(args[0]))) {
+                Simulation.writeCsv(results, writer);
             }
-
-            double averageTime = (double) totalTime / runs;
-            System.out.println(i + " " + averageTime);
+        } else {
+            Simulation.writeCsv(results, new OutputStreamWriter(System.out));
         }
-    }
-
-    private static long sendImage(double errorRate) {
-        GolayEncoder encoder = new GolayEncoder();
-        Channel channel = new Channel(errorRate);
-
-        try {
-            int[][] encodedImg = encoder.encodeFile("images/psip.bmp");
-            int headerSize = 16;
-            channel.send(encodedImg, encoder.getOverflow(), headerSize);
-
-            int[][] receivedData = channel.receive();
-            int safeData = channel.receiveSafeData();
-
-            String outputPath = "images/result.bmp";
-            long start = System.currentTimeMillis();
-            encoder.decodeFile(receivedData, outputPath, safeData);
-            long end = System.currentTimeMillis();
-            return end - start;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (args.length > 1) {
+            try (Writer writer = Files.newBufferedWriter(Path.of(args[1]))) {
+                Simulation.writeJson(results, writer);
+            }
         }
     }
 }
@@ -0,0 +1,245 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Simulation {
+    // Number of words a worker sends between checks of the stop condition.
+    private static final int BATCH_WORDS = 1 << 14;
+
+    // z value of 95% confidence interval.
+    private static final double Z = 1.96;
+
+    private final GolayEncoder encoder;
+    private final int threads;
+
+    // Frame errors after which an error rate is considered measured precisely enough.
+    private final long targetFrameErrors;
+
+    // Upper bound of words sent per error rate.
+    private final long maxFrames;
+
+    private final long seed;
+
+    public Simulation(GolayEncoder encoder, int threads, long targetFrameErrors, long maxFrames, long seed) {
+        this.encoder = encoder;
+        this.threads = threads;
+        this.targetFrameErrors = targetFrameErrors;
+        this.maxFrames = maxFrames;
+        this.seed = seed;
+    }
+
+    /**
+     * Measures bit and frame error rates of every channel error rate.
+     * @param errorRates probabilities of bit flip in the channel.
+     * @return result of every error rate in the same order.
+     */
+    public List<Result> run(double[] errorRates) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Result> results = new ArrayList<>();
+            for (int r = 0; r < errorRates.length; r++) {
+                results.add(run(executor, errorRates[r], seed + (long) r * threads));
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Result run(ExecutorService executor, double errorRate, long rateSeed) {
+        LongAdder frames = new LongAdder();
+        LongAdder frameErrors = new LongAdder();
+        LongAdder bitErrors = new LongAdder();
+
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long workerSeed = rateSeed + t;
+            workers.add(executor.submit(() -> runWorker(errorRate, workerSeed, frames, frameErrors, bitErrors)));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(errorRate, frames.sum(), frameErrors.sum(), bitErrors.sum(), elapsed);
+    }
+
+    /**
+     * Sends batches of random messages through encoder, channel and decoder until enough frame errors are counted.
+     */
+    private void runWorker(double errorRate, long workerSeed, LongAdder frames, LongAdder frameErrors, LongAdder bitErrors) {
+        SplittableRandom random = new SplittableRandom(workerSeed);
+        Channel channel = new Channel(errorRate, random.nextLong());
+        channel.setSkipSampling(true);
+        channel.setCodewordBits(encoder.getCodewordBits());
+
+        int[] messages = new int[BATCH_WORDS];
+        int[] codewords = new int[BATCH_WORDS];
+        IntBuffer buffer = IntBuffer.wrap(codewords);
+
+        while (frameErrors.sum() < targetFrameErrors && frames.sum() < maxFrames) {
+            for (int i = 0; i < BATCH_WORDS; i++) {
+                messages[i] = random.nextInt(1 << 12);
+                codewords[i] = encoder.encode12(messages[i]);
+            }
+
+            channel.send(buffer, 0, 0);
+
+            long batchFrameErrors = 0;
+            long batchBitErrors = 0;
+            for (int i = 0; i < BATCH_WORDS; i++) {
+                int errors = Integer.bitCount(encoder.decodeWord(codewords[i]) ^ messages[i]);
+                batchBitErrors += errors;
+                if (errors != 0) {
+                    batchFrameErrors++;
+                }
+            }
+
+            frames.add(BATCH_WORDS);
+            frameErrors.add(batchFrameErrors);
+            bitErrors.add(batchBitErrors);
+        }
+    }
+
+    /**
+     * Writes results as CSV with a header row.
+     * @param results simulation results.
+     * @param writer destination of CSV text.
+     * @throws IOException when failed to write.
+     */
+    public static void writeCsv(List<Result> results, Writer writer) throws IOException {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("errorRate,frames,frameErrors,bitErrors,fer,ferLow,ferHigh,ber,berLow,berHigh,wordsPerSecond");
+        for (Result result : results) {
+            out.printf(Locale.ROOT, "%s,%d,%d,%d,%e,%e,%e,%e,%e,%e,%.0f%n",
+                    result.getErrorRate(), result.getFrames(), result.getFrameErrors(), result.getBitErrors(),
+                    result.getFrameErrorRate(), result.getFrameErrorRateLow(), result.getFrameErrorRateHigh(),
+                    result.getBitErrorRate(), result.getBitErrorRateLow(), result.getBitErrorRateHigh(),
+                    result.getWordsPerSecond());
+        }
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Failed to write CSV");
+        }
+    }
+
+    /**
+     * Writes results as a JSON array of objects.
+     * @param results simulation results.
+     * @param writer destination of JSON text.
+     * @throws IOException when failed to write.
+     */
+    public static void writeJson(List<Result> results, Writer writer) throws IOException {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            out.printf(Locale.ROOT, "  {\"errorRate\": %s, \"frames\": %d, \"frameErrors\": %d, \"bitErrors\": %d, "
+                            + "\"fer\": %e, \"ferLow\": %e, \"ferHigh\": %e, \"ber\": %e, \"berLow\": %e, \"berHigh\": %e, "
+                            + "\"wordsPerSecond\": %.0f}%s%n",
+                    result.getErrorRate(), result.getFrames(), result.getFrameErrors(), result.getBitErrors(),
+                    result.getFrameErrorRate(), result.getFrameErrorRateLow(), result.getFrameErrorRateHigh(),
+                    result.getBitErrorRate(), result.getBitErrorRateLow(), result.getBitErrorRateHigh(),
+                    result.getWordsPerSecond(), i + 1 < results.size() ? "," : "");
+        }
+        out.println("]");
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Failed to write JSON");
+        }
+    }
+
+    /**
+     * Lower or upper bound of Wilson score interval of a proportion.
+     * @param errors number of errors.
+     * @param trials number of trials.
+     * @param sign -1 for lower bound, 1 for upper bound.
+     * @return bound of 95% confidence interval.
+     */
+    private static double wilson(long errors, long trials, int sign) {
+        if (trials == 0) {
+            return sign < 0 ? 0 : 1;
+        }
+        double p = (double) errors / trials;
+        double z2 = Z * Z / trials;
+        double center = p + z2 / 2;
+        double half = Z * Math.sqrt(p * (1 - p) / trials + z2 / (4 * trials));
+        return Math.min(1, Math.max(0, (center + sign * half) / (1 + z2)));
+    }
+
+    public static class Result {
+        private final double errorRate;
+        private final long frames;
+        private final long frameErrors;
+        private final long bitErrors;
+        private final long elapsedNanos;
+
+        public Result(double errorRate, long frames, long frameErrors, long bitErrors, long elapsedNanos) {
+            this.errorRate = errorRate;
+            this.frames = frames;
+            this.frameErrors = frameErrors;
+            this.bitErrors = bitErrors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public long getFrames() {
+            return frames;
+        }
+
+        public long getFrameErrors() {
+            return frameErrors;
+        }
+
+        public long getBitErrors() {
+            return bitErrors;
+        }
+
+        public double getFrameErrorRate() {
+            return frames == 0 ? 0 : (double) frameErrors / frames;
+        }
+
+        public double getFrameErrorRateLow() {
+            return wilson(frameErrors, frames, -1);
+        }
+
+        public double getFrameErrorRateHigh() {
+            return wilson(frameErrors, frames, 1);
+        }
+
+        // bit error rate over decoded message bits.
+        public double getBitErrorRate() {
+            return frames == 0 ? 0 : (double) bitErrors / (frames * 12);
+        }
+
+        // bits of one word are not independent, so the interval treats them as such only approximately.
+        public double getBitErrorRateLow() {
+            return wilson(bitErrors, frames * 12, -1);
+        }
+
+        public double getBitErrorRateHigh() {
+            return wilson(bitErrors, frames * 12, 1);
+        }
+
+        public double getWordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : frames * 1e9 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+public class SoftDecoder {
+    // Hard decision decoder used for every test pattern, without metrics so a word is counted once.
+    private final GolayEncoder encoder;
+
+    // Metrics of the given decoder counting the chosen codeword of every word, null when not counting or not fixing errors.
+    private final DecoderMetrics metrics;
+
+    // Number of bits in a received word, codeword length of the decoder.
+    private final int length;
+
+    // Number of least reliable bits whose flips make the test patterns.
+    private final int leastReliableBits;
+
+    // Reliability of every bit of current word, reused between words so decoding does not allocate.
+    private final float[] reliability;
+
+    // Indexes of least reliable bits of current word, least reliable first.
+    private final int[] positions;
+
+    /**
+     * Creates Chase-II decoder. Instance keeps scratch arrays, so every thread needs its own decoder.
+     * @param encoder hard decision decoder, SYNDROME_TABLE or DIRECT_TABLE mode being fastest.
+     *                Every word has one ratio per codeword bit, parity of 24 bit codewords coming first.
+     * @param leastReliableBits number of least reliable bits to flip, giving 2^leastReliableBits test patterns,
+     *                          from 0 to codeword length.
+     */
+    public SoftDecoder(GolayEncoder encoder, int leastReliableBits) {
+        if (leastReliableBits < 0 || leastReliableBits > encoder.getCodewordBits()) {
+            throw new IllegalArgumentException("Least reliable bits must be from 0 to " + encoder.getCodewordBits());
+        }
+        this.encoder = encoder.withMetrics(null);
+        this.metrics = encoder.isFixErrors() ? encoder.getMetrics() : null;
+        this.length = encoder.getCodewordBits();
+        this.leastReliableBits = leastReliableBits;
+        this.reliability = new float[length];
+        this.positions = new int[leastReliableBits];
+    }
+
+    /**
+     * Decodes one word of log-likelihood ratios, positive values meaning bit "0".
+     * @param llrs array of ratios.
+     * @param offset index of first ratio of the word.
+     * @return decoded 12 bit message.
+     */
+    public int decode(float[] llrs, int offset) {
+        int hard = 0;
+        for (int i = 0; i < length; i++) {
+            float llr = llrs[offset + i];
+            hard = (hard << 1) | (llr < 0 ? 1 : 0);
+            reliability[i] = Math.abs(llr);
+        }
+        return decodeHard(hard);
+    }
+
+    /**
+     * Decodes one word of fixed point log-likelihood ratios, positive values meaning bit "0".
+     * @param llrs array of ratios.
+     * @param offset index of first ratio of the word.
+     * @return decoded 12 bit message.
+     */
+    public int decode(short[] llrs, int offset) {
+        int hard = 0;
+        for (int i = 0; i < length; i++) {
+            short llr = llrs[offset + i];
+            hard = (hard << 1) | (llr < 0 ? 1 : 0);
+            reliability[i] = Math.abs(llr);
+        }
+        return decodeHard(hard);
+    }
+
+    /**
+     * Decodes consecutive words of log-likelihood ratios.
+     * @param llrs array of codeword length ratios per word.
+     * @param offset index of first ratio.
+     * @param count number of words.
+     * @param messages array receiving decoded 12 bit messages.
+     * @param messagesOffset index of first message.
+     */
+    public void decode(float[] llrs, int offset, int count, int[] messages, int messagesOffset) {
+        for (int i = 0; i < count; i++) {
+            messages[messagesOffset + i] = decode(llrs, offset + i * length);
+        }
+    }
+
+    /**
+     * Decodes consecutive words of fixed point log-likelihood ratios.
+     * @param llrs array of codeword length ratios per word.
+     * @param offset index of first ratio.
+     * @param count number of words.
+     * @param messages array receiving decoded 12 bit messages.
+     * @param messagesOffset index of first message.
+     */
+    public void decode(short[] llrs, int offset, int count, int[] messages, int messagesOffset) {
+        for (int i = 0; i < count; i++) {
+            messages[messagesOffset + i] = decode(llrs, offset + i * length);
+        }
+    }
+
+    /**
+     * Runs hard decision decoder on every test pattern and keeps the codeword closest to received reliabilities.
+     * @param hard hard decision word of codeword length.
+     * @return decoded 12 bit message.
+     */
+    private int decodeHard(int hard) {
+        findLeastReliable();
+
+        int bestMessage = 0;
+        int bestDiff = 0;
+        float bestMetric = Float.MAX_VALUE;
+
+        for (int pattern = 0; pattern < (1 << leastReliableBits); pattern++) {
+            int testWord = hard;
+            for (int i = 0; i < leastReliableBits; i++) {
+                if (((pattern >>> i) & 1) != 0) {
+                    testWord ^= 1 << (length - 1 - positions[i]);
+                }
+            }
+
+            int message = encoder.decodeWord(testWord);
+
+            // metric is the sum of reliabilities of bits where candidate differs from hard decision.
+            float metric = 0;
+            int diff = encoder.encode12(message) ^ hard;
+            for (int bits = diff; bits != 0; bits &= bits - 1) {
+                metric += reliability[length - 1 - Integer.numberOfTrailingZeros(bits)];
+            }
+
+            if (metric < bestMetric) {
+                bestMetric = metric;
+                bestMessage = message;
+                bestDiff = diff;
+            }
+        }
+
+        if (metrics != null) {
+            // corrected weight is the distance between hard decision and the chosen codeword.
+            metrics.record(Integer.bitCount(bestDiff));
+        }
+        return bestMessage;
+    }
+
+    /**
+     * Selects indexes of least reliable bits of current word by insertion into a short sorted array.
+     */
+    private void findLeastReliable() {
+        int found = 0;
+        for (int i = 0; i < length && positions.length > 0; i++) {
+            float value = reliability[i];
+
+            int j;
+            if (found < positions.length) {
+                j = found++;
+            } else if (value < reliability[positions[positions.length - 1]]) {
+                // drops the most reliable of selected bits.
+                j = positions.length - 1;
+            } else {
+                continue;
+            }
+
+            while (j > 0 && reliability[positions[j - 1]] > value) {
+                positions[j] = positions[j - 1];
+                j--;
+            }
+            positions[j] = i;
+        }
+    }
+}